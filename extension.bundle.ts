@@ -5,8 +5,11 @@ export { activate, deactivate } from './src/extension';
 export * from './src/codelens/TestCodeLensProvider';
 export * from './src/codelens/TestCodeLensController';
 export * from './src/runners/models';
+export * from './src/runners/baseRunner/BaseRunner';
 export * from './src/testResultManager';
+export * from './src/testItemModel';
 export * from './src/protocols';
 export * from './src/utils/commandUtils';
 export * from './src/testFileWatcher';
 export * from './src/runners/runnerScheduler';
+export * from './src/runners/testngRunner/TestNGRunner';
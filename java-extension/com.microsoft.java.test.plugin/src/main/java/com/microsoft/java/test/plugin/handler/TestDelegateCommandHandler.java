@@ -12,6 +12,9 @@
 package com.microsoft.java.test.plugin.handler;
 
 import com.microsoft.java.test.plugin.launchers.JUnitLaunchUtils;
+import com.microsoft.java.test.plugin.launchers.RerunLaunchUtils;
+import com.microsoft.java.test.plugin.launchers.TestJournalUtils;
+import com.microsoft.java.test.plugin.launchers.TestResultCache;
 import com.microsoft.java.test.plugin.util.ProjectTestUtils;
 import com.microsoft.java.test.plugin.util.TestSearchUtils;
 
@@ -29,7 +32,12 @@ public class TestDelegateCommandHandler implements IDelegateCommandHandler {
     private static final String SEARCH_TEST_ALL_ITEMS = "vscode.java.test.search.items.all";
     private static final String SEARCH_TEST_CODE_LENS = "vscode.java.test.search.codelens";
     private static final String SEARCH_TEST_LOCATION = "vscode.java.test.search.location";
+    private static final String SEARCH_TEST_CLASS_FILES = "vscode.java.test.search.classfiles";
     private static final String RESOLVE_JUNIT_ARGUMENT = "vscode.java.test.junit.argument";
+    private static final String RESOLVE_JUNIT_ARGUMENTS = "vscode.java.test.junit.arguments";
+    private static final String RESOLVE_RERUN_FAILURES_ARGUMENT = "vscode.java.test.rerun.failures.argument";
+    private static final String RECORD_TEST_RESULTS = "vscode.java.test.results.record";
+    private static final String READ_TEST_JOURNAL = "vscode.java.test.journal.read";
 
     @Override
     public Object executeCommand(String commandId, List<Object> arguments, IProgressMonitor monitor) throws Exception {
@@ -48,8 +56,18 @@ public class TestDelegateCommandHandler implements IDelegateCommandHandler {
                 return TestSearchUtils.searchCodeLens(arguments, monitor);
             case SEARCH_TEST_LOCATION:
                 return TestSearchUtils.searchLocation(arguments, monitor);
+            case SEARCH_TEST_CLASS_FILES:
+                return TestSearchUtils.searchTestItemsInClassFiles(arguments, monitor);
             case RESOLVE_JUNIT_ARGUMENT:
                 return JUnitLaunchUtils.resolveLaunchArgument(arguments, monitor);
+            case RESOLVE_JUNIT_ARGUMENTS:
+                return JUnitLaunchUtils.resolveLaunchArguments(arguments, monitor);
+            case RESOLVE_RERUN_FAILURES_ARGUMENT:
+                return RerunLaunchUtils.resolveRerunArguments(arguments, monitor);
+            case RECORD_TEST_RESULTS:
+                return TestResultCache.recordResults(arguments, monitor);
+            case READ_TEST_JOURNAL:
+                return TestJournalUtils.readJournal(arguments, monitor);
             default:
                 throw new UnsupportedOperationException(
                         String.format("Java test plugin doesn't support the command '%s'.", commandId));
@@ -11,28 +11,19 @@
 
 package com.microsoft.java.test.plugin.launchers;
 
-import org.apache.commons.lang3.text.StrSubstitutor;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfigurationType;
 import org.eclipse.debug.internal.core.LaunchConfiguration;
 import org.eclipse.debug.internal.core.LaunchConfigurationInfo;
+import org.eclipse.jdt.internal.junit.launcher.JUnitLaunchConfigurationConstants;
 import org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
-import org.w3c.dom.Element;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-import org.xml.sax.helpers.DefaultHandler;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-
-import java.io.IOException;
-import java.io.StringReader;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
 
 public class JUnitLaunchConfiguration extends LaunchConfiguration {
     private final LaunchConfigurationInfo launchInfo;
@@ -73,21 +64,26 @@ public class JUnitLaunchConfiguration extends LaunchConfiguration {
 }
 
 class JUnitLaunchConfigurationInfo extends LaunchConfigurationInfo {
+    private static final String JUNIT_LAUNCH_CONFIGURATION_TYPE = "org.eclipse.jdt.junit.launchconfig";
+
     public JUnitLaunchConfigurationInfo(TestInfo testInfo) throws CoreException {
-        try {
-            final StrSubstitutor sub = new StrSubstitutor(testInfo.toValueMap());
-            final String launchXml = sub.replace(JUnitLaunchConfigurationTemplate.JUNIT_TEMPLATE);
-            final DocumentBuilder parser = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-            parser.setErrorHandler(new DefaultHandler());
-            final StringReader reader = new StringReader(launchXml);
-            final InputSource source = new InputSource(reader);
-            final Element root = parser.parse(source).getDocumentElement();
-            initializeFromXML(root);
-        } catch (ParserConfigurationException | SAXException | IOException | CoreException e) {
-            // do nothing
+        final ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager()
+                .getLaunchConfigurationType(JUNIT_LAUNCH_CONFIGURATION_TYPE);
+        if (type == null) {
             throw new CoreException(new Status(IStatus.ERROR, "com.microsoft.java.test.plugin.launchers",
-                    "Failed to load JUnit launch configuration", e));
+                    "Failed to load JUnit launch configuration"));
         }
+        setType(type);
+
+        // Set the attributes directly instead of parsing them from a launch configuration XML
+        setAttribute(LaunchConfiguration.ATTR_MAPPED_RESOURCE_PATHS, new ArrayList<String>());
+        setAttribute(LaunchConfiguration.ATTR_MAPPED_RESOURCE_TYPES, new ArrayList<String>());
+        setAttribute(JUnitLaunchConfigurationConstants.ATTR_TEST_CONTAINER, testInfo.testContainer);
+        setAttribute(JUnitLaunchConfigurationConstants.ATTR_KEEPRUNNING, false);
+        setAttribute(JUnitLaunchConfigurationConstants.ATTR_TEST_NAME, testInfo.testName);
+        setAttribute(JUnitLaunchConfigurationConstants.ATTR_TEST_RUNNER_KIND, testInfo.testKind);
+        setAttribute(IJavaLaunchConfigurationConstants.ATTR_MAIN_TYPE_NAME, testInfo.mainType);
+        setAttribute(IJavaLaunchConfigurationConstants.ATTR_VM_ARGUMENTS, "-ea");
     }
 }
 
@@ -97,13 +93,4 @@ class TestInfo {
     public String testKind = "";
     public String testName = "";
     public IProject project;
-
-    public Map<String, String> toValueMap() {
-        final Map<String, String> valueMap = new HashMap<>();
-        valueMap.put("testContainer", testContainer);
-        valueMap.put("testName", testName);
-        valueMap.put("testKind", testKind);
-        valueMap.put("mainType", mainType);
-        return valueMap;
-    }
 }
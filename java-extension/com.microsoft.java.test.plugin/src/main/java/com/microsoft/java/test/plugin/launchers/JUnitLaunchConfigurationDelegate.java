@@ -21,11 +21,14 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IRegion;
 import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.internal.corext.refactoring.util.JavaElementUtil;
 import org.eclipse.jdt.internal.junit.JUnitMessages;
 import org.eclipse.jdt.internal.junit.Messages;
+import org.eclipse.jdt.internal.junit.launcher.ITestFinder;
 import org.eclipse.jdt.internal.junit.launcher.ITestKind;
 import org.eclipse.jdt.internal.junit.launcher.JUnitLaunchConfigurationConstants;
 import org.eclipse.jdt.internal.junit.launcher.TestKindRegistry;
@@ -44,11 +47,23 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class JUnitLaunchConfigurationDelegate extends org.eclipse.jdt.junit.launcher.JUnitLaunchConfigurationDelegate {
 
     private boolean fIsHierarchicalPackage;
 
+    // the package and its sub-packages launched in hierarchical mode
+    private Set<String> fPackageNames;
+
+    // the classpaths shared with the other launches of the same batch, or null
+    private LaunchClasspathCache fClasspathCache;
+
+    void setClasspathCache(LaunchClasspathCache classpathCache) {
+        fClasspathCache = classpathCache;
+    }
+
     public JUnitLaunchArguments getJUnitLaunchArguments(ILaunchConfiguration configuration, String mode,
             boolean isHierarchicalPackage, IProgressMonitor monitor) throws CoreException {
         fIsHierarchicalPackage = isHierarchicalPackage;
@@ -84,9 +99,25 @@ public class JUnitLaunchConfigurationDelegate extends org.eclipse.jdt.junit.laun
             return null;
         } finally {
             fIsHierarchicalPackage = false;
+            fPackageNames = null;
         }
     }
 
+    /*
+     * Reuse the classpath resolved by the other launches of the same project and test kind in the batch
+     *
+     * @see org.eclipse.jdt.junit.launcher.JUnitLaunchConfigurationDelegate#getClasspathAndModulepath(
+     *      org.eclipse.debug.core.ILaunchConfiguration)
+     */
+    @Override
+    public String[][] getClasspathAndModulepath(ILaunchConfiguration configuration) throws CoreException {
+        if (fClasspathCache == null) {
+            return super.getClasspathAndModulepath(configuration);
+        }
+        return fClasspathCache.get(getJavaProject(configuration).getProject().getName(),
+                getTestRunnerKind(configuration).getId(), () -> super.getClasspathAndModulepath(configuration));
+    }
+
     /*
      * Override the super implementation when it is launched in hierarchical mode and starts from
      * the package level
@@ -107,13 +138,31 @@ public class JUnitLaunchConfigurationDelegate extends org.eclipse.jdt.junit.laun
         }
 
         final IPackageFragment[] packages = JavaElementUtil.getPackageAndSubpackages(testPackage);
-        
+
+        // The JDT test finders search a single container, and build a type hierarchy for each of them. Here the
+        // hierarchy is built once for a region of all the packages in the subtree, and each class of the region is
+        // checked by the finder.
+        final IRegion region = JavaCore.newRegion();
+        fPackageNames = new TreeSet<>();
+        for (final IPackageFragment packageFragment : packages) {
+            fPackageNames.add(packageFragment.getElementName());
+            // The intermediate packages, e.g. 'com' of 'com.example', have nothing to search
+            if (packageFragment.containsJavaResources()) {
+                region.add(packageFragment);
+            }
+        }
+
         final HashSet<IType> result = new HashSet<>();
         final ITestKind testKind = getTestRunnerKind(configuration);
-        for (final IPackageFragment packageFragment : packages) {
-            testKind.getFinder().findTestsInContainer(packageFragment, result, monitor);
+        final ITestFinder finder = testKind.getFinder();
+        final ITypeHierarchy hierarchy = JavaCore.newTypeHierarchy(region, null, monitor);
+        for (final IType type : hierarchy.getAllClasses()) {
+            // The hierarchy also has the super classes out of the region
+            if (region.contains(type) && finder.isTest(type)) {
+                result.add(type);
+            }
         }
-        
+
         if (result.isEmpty()) {
             final String msg = Messages.format(JUnitMessages.JUnitLaunchConfigurationDelegate_error_notests_kind,
                 testKind.getDisplayName());
@@ -121,7 +170,7 @@ public class JUnitLaunchConfigurationDelegate extends org.eclipse.jdt.junit.laun
         }
         return result.toArray(new IMember[result.size()]);
     }
-    
+
     private IPackageFragment getTestPackage(ILaunchConfiguration configuration) throws CoreException {
         final String containerHandle = configuration.getAttribute(
                 JUnitLaunchConfigurationConstants.ATTR_TEST_CONTAINER, "");
@@ -168,25 +217,24 @@ public class JUnitLaunchConfigurationDelegate extends org.eclipse.jdt.junit.laun
 
     /**
      * JUnit5's runner will run packages defined in a file, we can add more packages into that file when it's 
-     * run from hierarchical mode to let the runner run test in all the sub-packages.
+     * run from hierarchical mode to let the runner run test in all the sub-packages. All the packages of the subtree
+     * searched by {@link #evaluateTests(ILaunchConfiguration, IProgressMonitor)} are written.
      */
     private void appendPackageNames(String[] programArguments, ILaunchConfiguration configuration) {
+        if (fPackageNames == null || fPackageNames.isEmpty()) {
+            return;
+        }
         for (int i = 0; i < programArguments.length; i++) {
             if ("-packageNameFile".equals(programArguments[i]) && i + 1 < programArguments.length) {
                 final String packageNameFilePath = programArguments[i + 1];
                 final File file = new File(packageNameFilePath);
                 try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
                         StandardCharsets.UTF_8))) {
-                    final IPackageFragment testPackage = getTestPackage(configuration);
-                    if (testPackage == null) {
-                        return;
-                    }
-                    final IPackageFragment[] packages = JavaElementUtil.getPackageAndSubpackages(testPackage);
-                    for (final IPackageFragment pkg : packages) {
-                        bw.write(pkg.getElementName());
+                    for (final String packageName : fPackageNames) {
+                        bw.write(packageName);
                         bw.newLine();
                     }
-                } catch (IOException | CoreException e) {
+                } catch (IOException e) {
                     // do nothing
                 }
                 return;
@@ -202,5 +250,12 @@ public class JUnitLaunchConfigurationDelegate extends org.eclipse.jdt.junit.laun
         String[] modulepath;
         String[] vmArguments;
         String[] programArguments;
+        // the tests skipped since they passed with the same fingerprint, see TestResultCache
+        String[] cachedTests;
+        boolean allTestsCached;
+        // the flight recording dumped when the tests exit, if launched in the profiling mode
+        String recordingFile;
+        // the suite file which selects the tests of a TestNG rerun, see RerunLaunchUtils
+        String testNGSuiteFile;
     }
 }
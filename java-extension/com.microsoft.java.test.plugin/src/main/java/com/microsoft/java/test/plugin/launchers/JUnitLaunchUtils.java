@@ -17,7 +17,6 @@ import com.microsoft.java.test.plugin.model.TestKind;
 import com.microsoft.java.test.plugin.model.TestLevel;
 import com.microsoft.java.test.plugin.util.TestSearchUtils;
 
-import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFolder;
@@ -41,6 +40,8 @@ import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.NodeFinder;
 import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
 import org.eclipse.jdt.launching.IRuntimeClasspathEntry;
+import org.eclipse.jdt.launching.IVMInstall;
+import org.eclipse.jdt.launching.IVMInstall2;
 import org.eclipse.jdt.launching.JavaRuntime;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
@@ -48,6 +49,9 @@ import org.eclipse.jdt.ls.core.internal.handlers.JsonRpcHelpers;
 import org.eclipse.lsp4j.Position;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Paths;
@@ -58,13 +62,20 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class JUnitLaunchUtils {
 
     private static final String TESTNG_LOADER = "com.microsoft.java.test.loader.testng";
     private static final String JUNIT5_LOADER = "org.eclipse.jdt.junit.loader.junit5";
     private static final String JUNIT4_LOADER = "org.eclipse.jdt.junit.loader.junit4";
+    private static final String PROFILE_PROPERTY = "com.microsoft.java.test.runner.profile";
+    private static final int MAX_RESOLVING_THREADS = 4;
 
     private JUnitLaunchUtils() {}
 
@@ -72,7 +83,77 @@ public class JUnitLaunchUtils {
             throws URISyntaxException, CoreException {
         final Gson gson = new Gson();
         final Argument args = gson.fromJson((String) arguments.get(0), Argument.class);
+        return resolveLaunchArgument(args, null, monitor);
+    }
+
+    /**
+     * Resolve the launch arguments of several runs in one request, e.g. for a run of the whole workspace. The runs
+     * are resolved concurrently, and the runs of the same project and test kind share the classpath resolution.
+     * The results are in the order of the runs, a run failed to resolve has the error message instead.
+     */
+    public static List<LaunchArgumentsResult> resolveLaunchArguments(List<Object> arguments,
+            IProgressMonitor monitor) throws InterruptedException {
+        final Gson gson = new Gson();
+        final Argument[] requests = gson.fromJson((String) arguments.get(0), Argument[].class);
+        final List<LaunchArgumentsResult> results = new ArrayList<>();
+        if (requests == null || requests.length == 0) {
+            return results;
+        }
+
+        final LaunchClasspathCache classpathCache = new LaunchClasspathCache();
+        final int threads = Math.min(requests.length,
+                Math.min(Runtime.getRuntime().availableProcessors(), MAX_RESOLVING_THREADS));
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(threads, 1));
+        try {
+            final List<Future<JUnitLaunchArguments>> futures = new ArrayList<>();
+            for (final Argument request : requests) {
+                futures.add(executor.submit(() -> resolveLaunchArgument(request, classpathCache, monitor)));
+            }
+            for (final Future<JUnitLaunchArguments> future : futures) {
+                final LaunchArgumentsResult result = new LaunchArgumentsResult();
+                try {
+                    result.launchArguments = future.get();
+                } catch (final ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    result.errorMessage = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+                }
+                results.add(result);
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static JUnitLaunchArguments resolveLaunchArgument(Argument args, LaunchClasspathCache classpathCache,
+            IProgressMonitor monitor) throws URISyntaxException, CoreException {
+        JUnitLaunchArguments launchArguments = LaunchArgumentsPreresolver.get(args, monitor);
+        if (launchArguments == null) {
+            launchArguments = createLaunchArguments(args, classpathCache, monitor);
+        }
+        if (launchArguments == null) {
+            return null;
+        }
 
+        if (args.skipCachedTests && args.testKind != TestKind.TestNG) {
+            TestResultCache.filterCachedTests(ProjectUtils.getJavaProject(args.project), args.testKind,
+                    args.launchId, launchArguments);
+        }
+        // The failed tests are rerun without the options of this run, e.g. profiling
+        RerunLaunchUtils.recordLaunch(launchArguments.projectName, args.testKind,
+                RerunLaunchUtils.copy(launchArguments));
+        if (args.profile) {
+            appendProfilingArguments(launchArguments, ProjectUtils.getJavaProject(args.project));
+        }
+        return launchArguments;
+    }
+
+    /**
+     * Resolve the launch arguments which only depend on the tests to run, without the options of the run, e.g.
+     * skipping the cached tests or profiling.
+     */
+    static JUnitLaunchArguments createLaunchArguments(Argument args, LaunchClasspathCache classpathCache,
+            IProgressMonitor monitor) throws URISyntaxException, CoreException {
         final TestInfo info = new TestInfo();
 
         info.testKind = getEclipseTestKind(args.testKind);
@@ -84,7 +165,7 @@ public class JUnitLaunchUtils {
         info.project = javaProject.getProject();
 
         if (args.scope == TestLevel.ROOT || args.scope == TestLevel.FOLDER) {
-            info.testContainer = StringEscapeUtils.escapeXml(javaProject.getHandleIdentifier());
+            info.testContainer = javaProject.getHandleIdentifier();
         } else {
             final File file = Paths.get(new URI(args.uri)).toFile();
             if (args.scope == TestLevel.PACKAGE && file.isDirectory()) {
@@ -98,6 +179,7 @@ public class JUnitLaunchUtils {
 
         final ILaunchConfiguration configuration = new JUnitLaunchConfiguration("JUnit Launch Configuration", info);
         final JUnitLaunchConfigurationDelegate delegate = new JUnitLaunchConfigurationDelegate();
+        delegate.setClasspathCache(classpathCache);
 
         if (monitor.isCanceled()) {
             return null;
@@ -105,7 +187,7 @@ public class JUnitLaunchUtils {
 
         if (TESTNG_LOADER.equals(info.testKind)) {
             // TestNG is not suported yet, we only use the junit launch configuration to resolve the classpath
-            return resolveTestNGLaunchArguments(configuration, javaProject, delegate);
+            return resolveTestNGLaunchArguments(configuration, javaProject, delegate, classpathCache);
         }
 
         return delegate.getJUnitLaunchArguments(configuration, "run", args.isHierarchicalPackage, monitor);
@@ -118,6 +200,102 @@ public class JUnitLaunchUtils {
         }
     }
 
+    /**
+     * Start a Java Flight Recorder recording with the <code>profile</code> settings, which is dumped when the
+     * tests exit. The TestNG runner marks the tests in the recording and reports the hot methods and the
+     * allocation sites of each test.
+     *
+     * The Flight Recorder is a commercial feature of the Oracle JDK before Java 11, it's unlocked for the Oracle
+     * JREs of Java 8 to 10. Other JREs of Java 8 may ship a Flight Recorder without the commercial features, the
+     * unlock option is ignored there. The JREs without a Flight Recorder, e.g. OpenJDK 9 and 10, are rejected since
+     * they would fail to start with the recording options.
+     */
+    private static void appendProfilingArguments(JUnitLaunchArguments launchArguments, IJavaProject javaProject)
+            throws CoreException {
+        final IVMInstall vmInstall = javaProject == null ? null : JavaRuntime.getVMInstall(javaProject);
+        final int javaVersion = getJavaMajorVersion(vmInstall);
+        if (javaVersion > 0 && javaVersion < 8) {
+            throw new RuntimeException(String.format("Profiling the tests requires Java 8 or later, " +
+                    "but the project '%s' runs on Java %d.", launchArguments.projectName, javaVersion));
+        }
+        final File installLocation = vmInstall == null ? null : vmInstall.getInstallLocation();
+        if (installLocation != null && !hasFlightRecorder(installLocation)) {
+            throw new RuntimeException(String.format("Profiling the tests requires a JRE with the Java Flight " +
+                    "Recorder, but the JRE '%s' of the project '%s' doesn't have one.", vmInstall.getName(),
+                    launchArguments.projectName));
+        }
+        final File recordingFile;
+        try {
+            recordingFile = File.createTempFile("java-test-", ".jfr");
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to create the flight recording file.", e);
+        }
+        final List<String> vmArgs = new ArrayList<>();
+        if (launchArguments.vmArguments != null) {
+            vmArgs.addAll(Arrays.asList(launchArguments.vmArguments));
+        }
+        if (javaVersion > 0 && javaVersion < 11) {
+            if (installLocation == null || !isOracleJre(installLocation)) {
+                vmArgs.add("-XX:+IgnoreUnrecognizedVMOptions");
+            }
+            vmArgs.add("-XX:+UnlockCommercialFeatures");
+        }
+        vmArgs.add("-XX:StartFlightRecording=settings=profile,dumponexit=true,filename=" +
+                recordingFile.getAbsolutePath());
+        vmArgs.add("-D" + PROFILE_PROPERTY + "=true");
+        launchArguments.vmArguments = vmArgs.toArray(new String[vmArgs.size()]);
+        launchArguments.recordingFile = recordingFile.getAbsolutePath();
+    }
+
+    /**
+     * @return the major version of the JRE the project runs on, e.g. 8 for <code>1.8.0_251</code>, or
+     *         <code>-1</code> if it's unknown
+     */
+    private static int getJavaMajorVersion(IVMInstall vmInstall) {
+        if (!(vmInstall instanceof IVMInstall2)) {
+            return -1;
+        }
+        final String version = ((IVMInstall2) vmInstall).getJavaVersion();
+        if (version == null) {
+            return -1;
+        }
+        final String[] segments = version.split("[._\\-+]");
+        try {
+            final int major = Integer.parseInt(segments[0]);
+            return major == 1 && segments.length > 1 ? Integer.parseInt(segments[1]) : major;
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * The Flight Recorder settings are shipped in <code>lib/jfr</code> of the JRE, or <code>jre/lib/jfr</code> of
+     * a JDK 8, with the Flight Recorder itself.
+     */
+    private static boolean hasFlightRecorder(File installLocation) {
+        return new File(installLocation, "lib/jfr/profile.jfc").isFile() ||
+                new File(installLocation, "jre/lib/jfr/profile.jfc").isFile();
+    }
+
+    /**
+     * @return whether the <code>release</code> file of the JRE names Oracle as the implementor, or the build as
+     *         commercial for the Oracle JDKs 8 which don't have an implementor
+     */
+    private static boolean isOracleJre(File installLocation) {
+        final File releaseFile = new File(installLocation, "release");
+        if (!releaseFile.isFile()) {
+            return false;
+        }
+        final Properties release = new Properties();
+        try (InputStream in = new FileInputStream(releaseFile)) {
+            release.load(in);
+        } catch (final IOException e) {
+            return false;
+        }
+        final String implementor = release.getProperty("IMPLEMENTOR", release.getProperty("BUILD_TYPE", ""));
+        return implementor.contains("Oracle") || implementor.contains("commercial");
+    }
+
     private static void parseConfigurationInfoForClass(TestInfo info, Argument args,
             IProgressMonitor monitor) throws JavaModelException {
         final ICompilationUnit cu = JDTUtils.resolveCompilationUnit(args.uri);
@@ -138,7 +316,7 @@ public class JUnitLaunchUtils {
         }
     }
 
-    private static String parseTestName(Argument args, ICompilationUnit cu,
+    static String parseTestName(Argument args, ICompilationUnit cu,
             IProgressMonitor monitor) throws JavaModelException {
         String testName = StringUtils.isEmpty(args.testName) ? "" : args.testName;
         // JUnit 5's methods need to have parameter information to launch
@@ -203,31 +381,20 @@ public class JUnitLaunchUtils {
         if (targetElement == null) {
             throw new RuntimeException("Cannot resolve valid element from: " + args.uri);
         }
-        info.testContainer = StringEscapeUtils.escapeXml(targetElement.getHandleIdentifier());
+        info.testContainer = targetElement.getHandleIdentifier();
     }
 
     private static JUnitLaunchArguments resolveTestNGLaunchArguments(ILaunchConfiguration configuration,
-            IJavaProject javaProject, JUnitLaunchConfigurationDelegate delegate) throws CoreException {
-        final IRuntimeClasspathEntry[] unresolved = JavaRuntime.computeUnresolvedRuntimeClasspath(configuration);
-        final IRuntimeClasspathEntry[] resolved = JavaRuntime.resolveRuntimeClasspath(unresolved, configuration);
-        final Set<String> classpaths = new LinkedHashSet<>();
-        final Set<String> modulepaths = new LinkedHashSet<>();
-        for (final IRuntimeClasspathEntry entry : resolved) {
-            final String location = entry.getLocation();
-            if (location != null) {
-                if (entry.getClasspathProperty() == IRuntimeClasspathEntry.USER_CLASSES ||
-                        entry.getClasspathProperty() == IRuntimeClasspathEntry.CLASS_PATH) {
-                    classpaths.add(location);
-                } else if (entry.getClasspathProperty() == IRuntimeClasspathEntry.MODULE_PATH) {
-                    modulepaths.add(location);
-                }
-            }
-        }
+            IJavaProject javaProject, JUnitLaunchConfigurationDelegate delegate, LaunchClasspathCache classpathCache)
+            throws CoreException {
+        final String projectName = javaProject.getProject().getName();
+        final String[][] paths = classpathCache == null ? resolveTestNGClasspath(configuration) :
+                classpathCache.get(projectName, TESTNG_LOADER, () -> resolveTestNGClasspath(configuration));
         final JUnitLaunchArguments launchArguments = new JUnitLaunchArguments();
 
-        launchArguments.projectName = javaProject.getProject().getName();
-        launchArguments.classpath = classpaths.toArray(new String[classpaths.size()]);
-        launchArguments.modulepath = modulepaths.toArray(new String[modulepaths.size()]);
+        launchArguments.projectName = projectName;
+        launchArguments.classpath = paths[0];
+        launchArguments.modulepath = paths[1];
 
         final IPath projectLocation = javaProject.getProject().getLocation();
         if (projectLocation != null) {
@@ -254,6 +421,28 @@ public class JUnitLaunchUtils {
         return launchArguments;
     }
 
+    private static String[][] resolveTestNGClasspath(ILaunchConfiguration configuration) throws CoreException {
+        final IRuntimeClasspathEntry[] unresolved = JavaRuntime.computeUnresolvedRuntimeClasspath(configuration);
+        final IRuntimeClasspathEntry[] resolved = JavaRuntime.resolveRuntimeClasspath(unresolved, configuration);
+        final Set<String> classpaths = new LinkedHashSet<>();
+        final Set<String> modulepaths = new LinkedHashSet<>();
+        for (final IRuntimeClasspathEntry entry : resolved) {
+            final String location = entry.getLocation();
+            if (location != null) {
+                if (entry.getClasspathProperty() == IRuntimeClasspathEntry.USER_CLASSES ||
+                        entry.getClasspathProperty() == IRuntimeClasspathEntry.CLASS_PATH) {
+                    classpaths.add(location);
+                } else if (entry.getClasspathProperty() == IRuntimeClasspathEntry.MODULE_PATH) {
+                    modulepaths.add(location);
+                }
+            }
+        }
+        return new String[][] {
+            classpaths.toArray(new String[classpaths.size()]),
+            modulepaths.toArray(new String[modulepaths.size()]),
+        };
+    }
+
     /**
      * copied from org.eclipse.jdt.junit.launcher.JUnitLaunchConfigurationDelegate.collectAddOpensVmArgs()
      */
@@ -296,7 +485,12 @@ public class JUnitLaunchUtils {
         }
     }
 
-    class Argument {
+    public static class LaunchArgumentsResult {
+        JUnitLaunchArguments launchArguments;
+        String errorMessage;
+    }
+
+    static class Argument {
         public String uri;
         public String classFullName;
         public String testName;
@@ -306,5 +500,8 @@ public class JUnitLaunchUtils {
         public Position start;
         public Position end;
         public boolean isHierarchicalPackage;
+        public boolean skipCachedTests;
+        public boolean profile;
+        public String launchId;
     }
 }
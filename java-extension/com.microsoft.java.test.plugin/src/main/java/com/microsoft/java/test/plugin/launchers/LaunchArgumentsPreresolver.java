@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.plugin.launchers;
+
+import com.microsoft.java.test.plugin.launchers.JUnitLaunchConfigurationDelegate.JUnitLaunchArguments;
+import com.microsoft.java.test.plugin.launchers.JUnitLaunchUtils.Argument;
+import com.microsoft.java.test.plugin.model.TestItem;
+import com.microsoft.java.test.plugin.model.TestKind;
+import com.microsoft.java.test.plugin.model.TestLevel;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the launch arguments of the test classes in the code lenses of the file being edited in a background job,
+ * so that running a test from a code lens is answered from the cache, without resolving the classpath again.
+ *
+ * Only the classes are resolved, the arguments of a method are derived from the arguments of its class when the
+ * method is run, since they only differ in the selected test. The arguments don't depend on the content of the file,
+ * so they are kept while the file is edited, and the job only resolves the classes which are not resolved yet. They
+ * are dropped when the code lenses of another file are searched, or when the project changes.
+ */
+@SuppressWarnings("restriction")
+public class LaunchArgumentsPreresolver {
+
+    private static final long PRERESOLVE_DELAY = 1000L;
+
+    private static ICompilationUnit currentUnit;
+
+    // the class launch arguments of the current unit
+    private static volatile Map<String, JUnitLaunchArguments> results = new ConcurrentHashMap<>();
+
+    private static final Set<String> projectNames = new HashSet<>();
+
+    private static PreresolveJob currentJob;
+
+    private LaunchArgumentsPreresolver() {}
+
+    public static synchronized void schedule(ICompilationUnit unit, List<TestItem> testItems) {
+        final ICompilationUnit primary = unit.getPrimary();
+        if (!primary.equals(currentUnit)) {
+            clear();
+            currentUnit = primary;
+        }
+
+        final List<Argument> requests = new ArrayList<>();
+        for (final Argument args : createRequests(testItems)) {
+            if (!results.containsKey(getKey(args))) {
+                requests.add(args);
+            }
+        }
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        // Debounce the code lens searches while the file is edited
+        if (currentJob != null) {
+            currentJob.cancel();
+        }
+        for (final Argument args : requests) {
+            projectNames.add(args.project);
+        }
+        currentJob = new PreresolveJob(requests, results);
+        currentJob.schedule(PRERESOLVE_DELAY);
+    }
+
+    public static synchronized void invalidate(IJavaProject project) {
+        if (projectNames.contains(project.getProject().getName())) {
+            clear();
+        }
+    }
+
+    /**
+     * @return a copy of the launch arguments resolved in advance, or <code>null</code> if they are not resolved
+     */
+    static JUnitLaunchArguments get(Argument args, IProgressMonitor monitor) throws JavaModelException {
+        final String key = getKey(args);
+        if (key == null) {
+            return null;
+        }
+        final JUnitLaunchArguments launchArguments = results.get(key);
+        if (launchArguments == null) {
+            return null;
+        }
+        final JUnitLaunchArguments result = RerunLaunchUtils.copy(launchArguments);
+        if (args.scope == TestLevel.METHOD) {
+            final ICompilationUnit unit = JDTUtils.resolveCompilationUnit(args.uri);
+            if (unit == null) {
+                return null;
+            }
+            final String testName = JUnitLaunchUtils.parseTestName(args, unit, monitor);
+            result.programArguments = RerunLaunchUtils.replaceJUnitSelection(launchArguments.programArguments,
+                    "-test", args.classFullName + ":" + testName);
+        }
+        return result;
+    }
+
+    private static void clear() {
+        if (currentJob != null) {
+            currentJob.cancel();
+            currentJob = null;
+        }
+        currentUnit = null;
+        results = new ConcurrentHashMap<>();
+        projectNames.clear();
+    }
+
+    /**
+     * Create the same requests as the client does when the classes are run from the code lenses, see
+     * <code>getLaunchArgumentsRequest()</code> in <code>launchUtils.ts</code>. The methods are left out.
+     */
+    private static List<Argument> createRequests(List<TestItem> testItems) {
+        final List<Argument> requests = new ArrayList<>();
+        final Set<String> testNGProjects = new HashSet<>();
+        for (final TestItem item : testItems) {
+            final Argument args = new Argument();
+            args.project = item.getProject();
+            args.testKind = item.getKind();
+            if (item.getKind() == TestKind.TestNG) {
+                // TestNG tests are launched with the classpath of the project only
+                if (!testNGProjects.add(item.getProject())) {
+                    continue;
+                }
+                args.uri = "";
+                args.classFullName = "";
+                args.testName = "";
+                args.scope = TestLevel.ROOT;
+                requests.add(args);
+                continue;
+            }
+            if (item.getLevel() != TestLevel.CLASS) {
+                continue;
+            }
+            args.uri = item.getLocation().getUri();
+            args.classFullName = item.getFullName();
+            args.testName = "";
+            args.scope = TestLevel.CLASS;
+            requests.add(args);
+        }
+        return requests;
+    }
+
+    /**
+     * The fields which the launch arguments of a class created by {@link JUnitLaunchUtils#createLaunchArguments}
+     * depend on, a method has the key of its class.
+     */
+    private static String getKey(Argument args) {
+        if (args.scope == TestLevel.ROOT) {
+            return args.testKind == TestKind.TestNG ? String.join("|", args.project, String.valueOf(args.testKind))
+                    : null;
+        }
+        if (args.scope != TestLevel.CLASS && args.scope != TestLevel.METHOD) {
+            return null;
+        }
+        return String.join("|", args.project, String.valueOf(args.testKind), args.uri, args.classFullName);
+    }
+
+    private static class PreresolveJob extends Job {
+        final List<Argument> requests;
+        final Map<String, JUnitLaunchArguments> results;
+
+        PreresolveJob(List<Argument> requests, Map<String, JUnitLaunchArguments> results) {
+            super("Resolve the launch arguments of the tests");
+            this.requests = requests;
+            this.results = results;
+            setPriority(Job.DECORATE);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor) {
+            final LaunchClasspathCache classpathCache = new LaunchClasspathCache();
+            for (final Argument args : requests) {
+                if (monitor.isCanceled()) {
+                    return Status.CANCEL_STATUS;
+                }
+                try {
+                    final JUnitLaunchArguments launchArguments = JUnitLaunchUtils.createLaunchArguments(args,
+                            classpathCache, monitor);
+                    if (launchArguments != null && !monitor.isCanceled()) {
+                        results.put(getKey(args), launchArguments);
+                    }
+                } catch (final Exception e) {
+                    // resolved again when the test is run
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+}
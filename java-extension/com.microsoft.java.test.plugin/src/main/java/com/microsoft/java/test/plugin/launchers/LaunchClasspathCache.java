@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.plugin.launchers;
+
+import org.eclipse.core.runtime.CoreException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Shares the runtime classpath between the launches resolved in the same batch. The classpath of a launch only
+ * depends on its project and its test kind, when several launches of a batch have the same ones, the first launch
+ * resolves the classpath and the others wait for it, even if they are resolved concurrently.
+ */
+class LaunchClasspathCache {
+
+    private final ConcurrentMap<String, CompletableFuture<String[][]>> classpaths = new ConcurrentHashMap<>();
+
+    /**
+     * @return the classpath and the modulepath
+     */
+    String[][] get(String projectName, String testKind, ClasspathResolver resolver) throws CoreException {
+        final CompletableFuture<String[][]> future = new CompletableFuture<>();
+        final CompletableFuture<String[][]> existing = classpaths.putIfAbsent(projectName + "@" + testKind, future);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            final String[][] result = resolver.resolve();
+            future.complete(result);
+            return result;
+        } catch (CoreException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static String[][] await(CompletableFuture<String[][]> future) throws CoreException {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof CoreException) {
+                throw (CoreException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    interface ClasspathResolver {
+        String[][] resolve() throws CoreException;
+    }
+}
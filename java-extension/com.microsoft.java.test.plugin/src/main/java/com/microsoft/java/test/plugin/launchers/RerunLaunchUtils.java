@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.plugin.launchers;
+
+import com.google.gson.Gson;
+import com.microsoft.java.test.plugin.launchers.JUnitLaunchConfigurationDelegate.JUnitLaunchArguments;
+import com.microsoft.java.test.plugin.model.TestKind;
+
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the launch arguments resolved for the last run of each project and test kind, so that the failed
+ * tests can be launched again without resolving the classpath.
+ */
+public class RerunLaunchUtils {
+
+    private static final String[] JUNIT_SELECTION_OPTIONS = new String[] {
+        "-test", "-testNameFile", "-packageNameFile", "-uniqueId" };
+    private static final String JUNIT_CLASS_NAMES_OPTION = "-classNames";
+
+    private static final Map<String, JUnitLaunchArguments> LAUNCH_ARGUMENTS = new ConcurrentHashMap<>();
+    private static final Map<String, List<String>> FAILED_TESTS = new ConcurrentHashMap<>();
+    // the files which select the failed tests, reused by the next reruns of the same project and test kind
+    private static final Map<String, File> RERUN_FILES = new ConcurrentHashMap<>();
+
+    private RerunLaunchUtils() {}
+
+    public static void recordLaunch(String projectName, TestKind testKind, JUnitLaunchArguments launchArguments) {
+        if (projectName == null || testKind == null || launchArguments == null) {
+            return;
+        }
+        LAUNCH_ARGUMENTS.put(getKey(projectName, testKind), launchArguments);
+    }
+
+    /**
+     * Drop the launches of the project, e.g. when its classpath changes.
+     */
+    public static void invalidate(String projectName) {
+        final String prefix = projectName + "@";
+        LAUNCH_ARGUMENTS.keySet().removeIf(key -> key.startsWith(prefix));
+        FAILED_TESTS.keySet().removeIf(key -> key.startsWith(prefix));
+        RERUN_FILES.entrySet().removeIf(entry -> {
+            if (entry.getKey().startsWith(prefix)) {
+                entry.getValue().delete();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public static JUnitLaunchArguments resolveRerunArguments(List<Object> arguments, IProgressMonitor monitor)
+            throws IOException {
+        final Gson gson = new Gson();
+        final Argument args = gson.fromJson((String) arguments.get(0), Argument.class);
+        final String key = getKey(args.project, args.testKind);
+
+        final JUnitLaunchArguments launchArguments = LAUNCH_ARGUMENTS.get(key);
+        if (launchArguments == null) {
+            throw new RuntimeException("No previous launch found for the project: " + args.project);
+        }
+
+        if (args.failedTests != null && args.failedTests.size() > 0) {
+            FAILED_TESTS.put(key, new ArrayList<>(args.failedTests));
+        }
+        final List<String> failedTests = FAILED_TESTS.get(key);
+        if (failedTests == null || failedTests.isEmpty()) {
+            throw new RuntimeException("No failed test found to rerun for the project: " + args.project);
+        }
+
+        if (monitor.isCanceled()) {
+            return null;
+        }
+
+        final JUnitLaunchArguments rerunArguments = copy(launchArguments);
+        if (args.testKind == TestKind.TestNG) {
+            // The client passes the suite file to the TestNG runner in place of the selected tests
+            final File suiteFile = getRerunFile(key, "testng-failed", ".xml");
+            writeTestNGFailedSuite(suiteFile, failedTests);
+            rerunArguments.testNGSuiteFile = suiteFile.getAbsolutePath();
+        } else {
+            final File testNameFile = getRerunFile(key, "testNames", ".txt");
+            writeTestClassNames(testNameFile, failedTests);
+            rerunArguments.programArguments = createJUnitProgramArguments(launchArguments.programArguments,
+                    testNameFile);
+        }
+        return rerunArguments;
+    }
+
+    /**
+     * Write the failed tests in the same format as the <code>testng-failed.xml</code> generated by TestNG.
+     */
+    private static void writeTestNGFailedSuite(File file, List<String> failedTests) throws IOException {
+        final Map<String, Set<String>> classToMethodsMap = groupByClass(failedTests);
+        try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8))) {
+            bw.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+            bw.newLine();
+            bw.write("<!DOCTYPE suite SYSTEM \"http://testng.org/testng-1.0.dtd\">");
+            bw.newLine();
+            bw.write("<suite name=\"Failed suite\">");
+            bw.newLine();
+            bw.write("  <test name=\"Failed tests\">");
+            bw.newLine();
+            bw.write("    <classes>");
+            bw.newLine();
+            for (final Entry<String, Set<String>> entry : classToMethodsMap.entrySet()) {
+                bw.write("      <class name=\"" + StringEscapeUtils.escapeXml(entry.getKey()) + "\">");
+                bw.newLine();
+                if (!entry.getValue().isEmpty()) {
+                    bw.write("        <methods>");
+                    bw.newLine();
+                    for (final String method : entry.getValue()) {
+                        bw.write("          <include name=\"" + StringEscapeUtils.escapeXml(method) + "\"/>");
+                        bw.newLine();
+                    }
+                    bw.write("        </methods>");
+                    bw.newLine();
+                }
+                bw.write("      </class>");
+                bw.newLine();
+            }
+            bw.write("    </classes>");
+            bw.newLine();
+            bw.write("  </test>");
+            bw.newLine();
+            bw.write("</suite>");
+            bw.newLine();
+        }
+    }
+
+    /**
+     * The Eclipse JUnit runners cannot select several methods in one launch, the failed tests are rerun
+     * at the class level through a test name file.
+     */
+    static File writeTestClassNames(List<String> failedTests) throws IOException {
+        final File file = File.createTempFile("testNames", ".txt");
+        file.deleteOnExit();
+        writeTestClassNames(file, failedTests);
+        return file;
+    }
+
+    private static void writeTestClassNames(File file, List<String> failedTests) throws IOException {
+        try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8))) {
+            for (final String className : groupByClass(failedTests).keySet()) {
+                bw.write(className);
+                bw.newLine();
+            }
+        }
+    }
+
+    static String[] createJUnitProgramArguments(String[] programArguments, File testNameFile) {
+        return replaceJUnitSelection(programArguments, "-testNameFile", testNameFile.getAbsolutePath());
+    }
+
+    /**
+     * Replace the tests selected in the program arguments of the Eclipse JUnit runners with the given option.
+     */
+    static String[] replaceJUnitSelection(String[] programArguments, String option, String value) {
+        final List<String> result = new ArrayList<>();
+        if (programArguments != null) {
+            final List<String> selectionOptions = Arrays.asList(JUNIT_SELECTION_OPTIONS);
+            for (int i = 0; i < programArguments.length; i++) {
+                if (selectionOptions.contains(programArguments[i])) {
+                    i++;
+                } else if (JUNIT_CLASS_NAMES_OPTION.equals(programArguments[i])) {
+                    while (i + 1 < programArguments.length && !programArguments[i + 1].startsWith("-")) {
+                        i++;
+                    }
+                } else {
+                    result.add(programArguments[i]);
+                }
+            }
+        }
+        result.add(option);
+        result.add(value);
+        return result.toArray(new String[result.size()]);
+    }
+
+    private static Map<String, Set<String>> groupByClass(List<String> tests) {
+        final Map<String, Set<String>> classToMethodsMap = new LinkedHashMap<>();
+        for (final String test : tests) {
+            final int index = test.lastIndexOf("#");
+            if (index >= 0) {
+                final String className = test.substring(0, index);
+                Set<String> methods = classToMethodsMap.get(className);
+                if (methods == null) {
+                    methods = new LinkedHashSet<>();
+                    classToMethodsMap.put(className, methods);
+                } else if (methods.isEmpty()) {
+                    // the whole class is already selected
+                    continue;
+                }
+                methods.add(test.substring(index + 1));
+            } else {
+                // the whole class is rerun
+                classToMethodsMap.put(test, new LinkedHashSet<>());
+            }
+        }
+        return classToMethodsMap;
+    }
+
+    static JUnitLaunchArguments getLastLaunch(String projectName, TestKind testKind) {
+        return LAUNCH_ARGUMENTS.get(getKey(projectName, testKind));
+    }
+
+    static JUnitLaunchArguments copy(JUnitLaunchArguments launchArguments) {
+        final JUnitLaunchArguments result = new JUnitLaunchArguments();
+        result.workingDirectory = launchArguments.workingDirectory;
+        result.mainClass = launchArguments.mainClass;
+        result.projectName = launchArguments.projectName;
+        result.classpath = launchArguments.classpath;
+        result.modulepath = launchArguments.modulepath;
+        result.vmArguments = launchArguments.vmArguments;
+        result.programArguments = launchArguments.programArguments;
+        result.recordingFile = launchArguments.recordingFile;
+        return result;
+    }
+
+    /**
+     * A rerun overwrites the file of the previous rerun of the same project and test kind, instead of leaving
+     * another temp file behind.
+     */
+    private static File getRerunFile(String key, String prefix, String suffix) throws IOException {
+        final String fileKey = key + suffix;
+        File file = RERUN_FILES.get(fileKey);
+        if (file == null) {
+            file = File.createTempFile(prefix, suffix);
+            file.deleteOnExit();
+            RERUN_FILES.put(fileKey, file);
+        }
+        return file;
+    }
+
+    private static String getKey(String projectName, TestKind testKind) {
+        return projectName + "@" + testKind;
+    }
+
+    static class Argument {
+        public String project;
+        public TestKind testKind;
+        public List<String> failedTests;
+    }
+}
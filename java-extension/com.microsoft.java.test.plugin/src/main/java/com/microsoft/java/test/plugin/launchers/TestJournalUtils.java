@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.plugin.launchers;
+
+import com.google.gson.Gson;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the journal written by the test runner (<code>com.microsoft.java.test.runner.common.TestJournal</code>),
+ * so that the client can recover the messages it missed when the test JVM crashed.
+ */
+public class TestJournalUtils {
+
+    private static final int MAGIC = 0x4A544A31; // "JTJ1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE_OFFSET = 8;
+    private static final int RECORD_COUNT_OFFSET = 12;
+    private static final int FLAGS_OFFSET = 16;
+    private static final int FLAG_CLOSED = 1;
+
+    private TestJournalUtils() {}
+
+    public static JournalContent readJournal(List<Object> arguments, IProgressMonitor monitor) throws IOException {
+        final Gson gson = new Gson();
+        final Argument args = gson.fromJson((String) arguments.get(0), Argument.class);
+        final JournalContent content = new JournalContent();
+        final File file = new File(args.path);
+        if (!file.isFile() || file.length() < HEADER_SIZE) {
+            return content;
+        }
+
+        try (RandomAccessFile journal = new RandomAccessFile(file, "r");
+                FileChannel channel = journal.getChannel()) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported test journal: " + args.path);
+            }
+            final int recordSize = buffer.getInt(RECORD_SIZE_OFFSET);
+            final int recordCount = buffer.getInt(RECORD_COUNT_OFFSET);
+            content.closed = (buffer.getInt(FLAGS_OFFSET) & FLAG_CLOSED) != 0;
+
+            int record = 0;
+            int index = 0;
+            while (record < recordCount && !monitor.isCanceled()) {
+                final int offset = HEADER_SIZE + record * recordSize;
+                final int length = buffer.getInt(offset);
+                if (length < 0 || offset + Integer.BYTES + length > buffer.capacity()) {
+                    // corrupted
+                    break;
+                }
+                if (index++ >= args.skip) {
+                    final byte[] bytes = new byte[length];
+                    buffer.position(offset + Integer.BYTES);
+                    buffer.get(bytes);
+                    content.messages.add(new String(bytes, StandardCharsets.UTF_8));
+                }
+                record += (Integer.BYTES + length + recordSize - 1) / recordSize;
+            }
+        }
+        return content;
+    }
+
+    public static class JournalContent {
+        List<String> messages = new ArrayList<>();
+        // if the runner exited normally
+        boolean closed;
+    }
+
+    class Argument {
+        public String path;
+        // the count of the messages already received by the client
+        public int skip;
+    }
+}
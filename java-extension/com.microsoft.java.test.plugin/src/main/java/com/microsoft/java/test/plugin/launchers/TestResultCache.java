@@ -0,0 +1,392 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.plugin.launchers;
+
+import com.google.gson.Gson;
+import com.microsoft.java.test.plugin.launchers.JUnitLaunchConfigurationDelegate.JUnitLaunchArguments;
+import com.microsoft.java.test.plugin.model.TestKind;
+import com.microsoft.java.test.plugin.util.ClassFileTestScanner;
+import com.microsoft.java.test.plugin.util.ProjectTestUtils;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the test classes whose tests all passed, keyed by a fingerprint of the bytecode of the class, the
+ * bytecode of the classes it depends on in the output folders of the project, the resources in the output folders,
+ * and the classpath of the launch.
+ *
+ * When it's enabled by the client, the test classes whose fingerprint is unchanged since they passed are
+ * removed from the JUnit launches, and the names of their tests are returned for the client to replay the
+ * results. The selections of methods and packages are launched as they are.
+ */
+@SuppressWarnings("restriction")
+public class TestResultCache {
+
+    private static final String TEST_NAME_FILE_OPTION = "-testNameFile";
+    private static final String CLASS_NAMES_OPTION = "-classNames";
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    private static final int MAX_PENDING_LAUNCHES = 32;
+
+    // project@kind -> test class -> cached result
+    private static final Map<String, Map<String, CachedResult>> results = new ConcurrentHashMap<>();
+
+    // launch id -> test class -> fingerprint computed when the test class is launched, the oldest launches are
+    // dropped when they never report back, e.g. when they are cancelled or crash
+    private static final Map<String, Map<String, String>> launchedFingerprints = Collections.synchronizedMap(
+            new LinkedHashMap<String, Map<String, String>>() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Map<String, String>> eldest) {
+                    return size() > MAX_PENDING_LAUNCHES;
+                }
+            });
+
+    private TestResultCache() {}
+
+    /**
+     * Remove the test classes which passed with the same fingerprint from the launch arguments.
+     *
+     * @param launchId identifies the launch when its results are recorded, the launches of the same project may
+     *                 overlap
+     */
+    public static void filterCachedTests(IJavaProject javaProject, TestKind testKind, String launchId,
+            JUnitLaunchArguments launchArguments) throws JavaModelException {
+        final List<String> testClasses = getTestClasses(launchArguments.programArguments);
+        if (testClasses == null || testClasses.isEmpty()) {
+            return;
+        }
+
+        final String key = getKey(javaProject.getProject().getName(), testKind);
+        final Fingerprinter fingerprinter = new Fingerprinter(javaProject, launchArguments.classpath);
+        final Map<String, CachedResult> cachedResults = results.getOrDefault(key, new HashMap<>());
+        final Map<String, String> fingerprints = new HashMap<>();
+        final List<String> remainingClasses = new ArrayList<>();
+        final List<String> cachedTests = new ArrayList<>();
+        for (final String testClass : testClasses) {
+            final String fingerprint = fingerprinter.fingerprint(testClass);
+            if (fingerprint == null) {
+                remainingClasses.add(testClass);
+                continue;
+            }
+            fingerprints.put(testClass, fingerprint);
+            final CachedResult cachedResult = cachedResults.get(testClass);
+            if (cachedResult != null && fingerprint.equals(cachedResult.fingerprint)) {
+                cachedTests.addAll(cachedResult.tests);
+            } else {
+                remainingClasses.add(testClass);
+            }
+        }
+        launchedFingerprints.put(getLaunchKey(launchId, key), fingerprints);
+
+        if (cachedTests.isEmpty()) {
+            return;
+        }
+        launchArguments.cachedTests = cachedTests.toArray(new String[cachedTests.size()]);
+        if (remainingClasses.isEmpty()) {
+            launchArguments.allTestsCached = true;
+            return;
+        }
+        try {
+            launchArguments.programArguments = RerunLaunchUtils.createJUnitProgramArguments(
+                    launchArguments.programArguments, RerunLaunchUtils.writeTestClassNames(remainingClasses));
+        } catch (final IOException e) {
+            // launch all the tests
+            launchArguments.cachedTests = null;
+        }
+    }
+
+    /**
+     * Record the results of the last launch of the project. A test class is cached if all its tests passed,
+     * with the fingerprint computed when it was launched.
+     */
+    public static Object recordResults(List<Object> arguments, IProgressMonitor monitor) {
+        final Gson gson = new Gson();
+        final Argument args = gson.fromJson((String) arguments.get(0), Argument.class);
+        final String key = getKey(args.project, args.testKind);
+        final Map<String, String> fingerprints = launchedFingerprints.remove(getLaunchKey(args.launchId, key));
+        if (fingerprints == null || args.results == null || args.results.isEmpty()) {
+            return null;
+        }
+
+        final Map<String, List<TestResult>> resultsByClass = new LinkedHashMap<>();
+        for (final TestResult result : args.results) {
+            final int index = result.fullName.indexOf('#');
+            final String className = index < 0 ? result.fullName : result.fullName.substring(0, index);
+            resultsByClass.computeIfAbsent(className, k -> new ArrayList<>()).add(result);
+        }
+
+        final Map<String, CachedResult> cachedResults = results.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        for (final Entry<String, List<TestResult>> entry : resultsByClass.entrySet()) {
+            final String fingerprint = fingerprints.get(entry.getKey());
+            final boolean passed = entry.getValue().stream().allMatch(result -> result.passed);
+            if (fingerprint == null || !passed) {
+                cachedResults.remove(entry.getKey());
+                continue;
+            }
+            final CachedResult cachedResult = new CachedResult();
+            cachedResult.fingerprint = fingerprint;
+            cachedResult.tests = new ArrayList<>();
+            for (final TestResult result : entry.getValue()) {
+                cachedResult.tests.add(result.fullName);
+            }
+            cachedResults.put(entry.getKey(), cachedResult);
+        }
+        return null;
+    }
+
+    /**
+     * Get the test classes selected by the program arguments of the Eclipse JUnit runners, or
+     * <code>null</code> if the tests are selected by packages or methods.
+     */
+    private static List<String> getTestClasses(String[] programArguments) {
+        if (programArguments == null) {
+            return null;
+        }
+        for (int i = 0; i < programArguments.length; i++) {
+            if (TEST_NAME_FILE_OPTION.equals(programArguments[i]) && i + 1 < programArguments.length) {
+                return readTestNameFile(new File(programArguments[i + 1]));
+            } else if (CLASS_NAMES_OPTION.equals(programArguments[i])) {
+                final List<String> result = new ArrayList<>();
+                while (i + 1 < programArguments.length && !programArguments[i + 1].startsWith("-")) {
+                    result.add(programArguments[++i]);
+                }
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> readTestNameFile(File file) {
+        final List<String> result = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(Files.newInputStream(file.toPath()),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    result.add(line.trim());
+                }
+            }
+        } catch (final IOException e) {
+            return null;
+        }
+        return result;
+    }
+
+    private static String getKey(String projectName, TestKind testKind) {
+        return projectName + "@" + testKind;
+    }
+
+    private static String getLaunchKey(String launchId, String key) {
+        return launchId == null || launchId.isEmpty() ? key : launchId;
+    }
+
+    /**
+     * Computes the fingerprints of the test classes in a launch, the bytes of the class files and the
+     * classpath fingerprint are shared across the test classes.
+     */
+    private static class Fingerprinter {
+        private final List<File> outputLocations;
+        private final String classpathFingerprint;
+        private final Map<String, File> classFiles = new HashMap<>();
+        private final Map<String, byte[]> classBytes = new HashMap<>();
+
+        Fingerprinter(IJavaProject javaProject, String[] classpath) throws JavaModelException {
+            this.outputLocations = ProjectTestUtils.getOutputLocations(javaProject);
+            this.classpathFingerprint = fingerprintClasspath(classpath);
+        }
+
+        /**
+         * @return the fingerprint, or <code>null</code> if the class file is not found
+         */
+        String fingerprint(String className) {
+            final File classFile = findClassFile(className);
+            if (classFile == null) {
+                return null;
+            }
+
+            // the class and its nested classes, and the project classes they depend on transitively
+            final Map<String, byte[]> closure = new TreeMap<>();
+            final Deque<String> queue = new ArrayDeque<>();
+            queue.add(className);
+            final File[] siblings = classFile.getParentFile().listFiles();
+            if (siblings != null) {
+                final String nestedPrefix = classFile.getName().replace(CLASS_FILE_EXTENSION, "$");
+                for (final File sibling : siblings) {
+                    if (sibling.getName().startsWith(nestedPrefix)) {
+                        final String simpleName = sibling.getName().replace(CLASS_FILE_EXTENSION, "");
+                        queue.add(className.substring(0, className.lastIndexOf('.') + 1) + simpleName);
+                    }
+                }
+            }
+            try {
+                while (!queue.isEmpty()) {
+                    final String name = queue.poll();
+                    if (closure.containsKey(name)) {
+                        continue;
+                    }
+                    final byte[] bytes = readClass(name);
+                    if (bytes == null) {
+                        continue;
+                    }
+                    closure.put(name, bytes);
+                    for (final String referencedName : ClassFileTestScanner.getReferencedClassNames(bytes)) {
+                        if (!closure.containsKey(referencedName)) {
+                            queue.add(referencedName);
+                        }
+                    }
+                }
+
+                final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                digest.update(classpathFingerprint.getBytes(StandardCharsets.UTF_8));
+                for (final Entry<String, byte[]> entry : closure.entrySet()) {
+                    digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+                    digest.update(entry.getValue());
+                }
+                return toHex(digest.digest());
+            } catch (final IOException | NoSuchAlgorithmException e) {
+                JavaLanguageServerPlugin.logException("Failed to compute the fingerprint of " + className, e);
+                return null;
+            }
+        }
+
+        private byte[] readClass(String className) throws IOException {
+            if (classBytes.containsKey(className)) {
+                return classBytes.get(className);
+            }
+            final File file = findClassFile(className);
+            final byte[] bytes = file == null ? null : Files.readAllBytes(file.toPath());
+            classBytes.put(className, bytes);
+            return bytes;
+        }
+
+        private File findClassFile(String className) {
+            if (classFiles.containsKey(className)) {
+                return classFiles.get(className);
+            }
+            File result = null;
+            final String relativePath = className.replace('.', File.separatorChar) + CLASS_FILE_EXTENSION;
+            for (final File outputLocation : outputLocations) {
+                final File file = new File(outputLocation, relativePath);
+                if (file.isFile()) {
+                    result = file;
+                    break;
+                }
+            }
+            classFiles.put(className, result);
+            return result;
+        }
+
+        /**
+         * The jars are identified by their paths, sizes and modification times. The class files in the output
+         * folders of the project itself are hashed per test class, the other files, e.g. the resources copied by
+         * the build, are identified by their number and their newest modification time.
+         */
+        private String fingerprintClasspath(String[] classpath) {
+            final StringBuilder builder = new StringBuilder();
+            if (classpath == null) {
+                return builder.toString();
+            }
+            for (final String entry : classpath) {
+                final File file = new File(entry);
+                builder.append(entry).append('|');
+                if (outputLocations.contains(file)) {
+                    final long[] resources = new long[2];
+                    collectResources(file, resources);
+                    builder.append(resources[0]).append('|').append(resources[1]).append(';');
+                    continue;
+                }
+                builder.append(file.length()).append('|').append(getLastModified(file)).append(';');
+            }
+            return builder.toString();
+        }
+
+        /**
+         * @param result the number of the files which are not class files, and their newest modification time
+         */
+        private void collectResources(File folder, long[] result) {
+            final File[] children = folder.listFiles();
+            if (children == null) {
+                return;
+            }
+            for (final File child : children) {
+                if (child.isDirectory()) {
+                    collectResources(child, result);
+                } else if (!child.getName().endsWith(CLASS_FILE_EXTENSION)) {
+                    result[0]++;
+                    result[1] = Math.max(result[1], child.lastModified());
+                }
+            }
+        }
+
+        private long getLastModified(File file) {
+            long lastModified = file.lastModified();
+            if (file.isDirectory()) {
+                final File[] children = file.listFiles();
+                if (children != null) {
+                    for (final File child : children) {
+                        lastModified = Math.max(lastModified, getLastModified(child));
+                    }
+                }
+            }
+            return lastModified;
+        }
+
+        private static String toHex(byte[] bytes) {
+            final StringBuilder builder = new StringBuilder(bytes.length * 2);
+            for (final byte b : bytes) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        }
+    }
+
+    private static class CachedResult {
+        String fingerprint;
+        List<String> tests;
+    }
+
+    static class Argument {
+        public String project;
+        public TestKind testKind;
+        public String launchId;
+        public List<TestResult> results;
+    }
+
+    static class TestResult {
+        public String fullName;
+        public boolean passed;
+    }
+}
@@ -20,6 +20,15 @@ public class SearchTestItemParams {
 
     private boolean isHierarchicalPackage;
 
+    // the count of the children already returned, 0 starts a new expansion of the package
+    private int offset;
+
+    // no limit when it's not positive
+    private int limit;
+
+    // when it's true, the ranges of the items are left empty, which can be resolved when the items are revealed
+    private boolean omitRange;
+
     public TestLevel getLevel() {
         return level;
     }
@@ -51,4 +60,28 @@ public class SearchTestItemParams {
     public void setFullName(String fullName) {
         this.fullName = fullName;
     }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public boolean isOmitRange() {
+        return omitRange;
+    }
+
+    public void setOmitRange(boolean omitRange) {
+        this.omitRange = omitRange;
+    }
 }
@@ -35,6 +35,12 @@ public abstract class BaseFrameworkSearcher implements TestFrameworkSearcher {
         return this.testMethodAnnotations;
     }
 
+    @Override
+    public boolean isTestMethod(IMethodBinding methodBinding) {
+        return isTestMethodCandidate(methodBinding) &&
+                findAnnotation(methodBinding.getAnnotations(), getTestMethodAnnotations());
+    }
+
     @Override
     public boolean findAnnotation(IAnnotationBinding[] annotations, String[] annotationNames) {
         for (final IAnnotationBinding annotation : annotations) {
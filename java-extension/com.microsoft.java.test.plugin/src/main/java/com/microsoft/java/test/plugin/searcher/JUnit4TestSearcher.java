@@ -53,17 +53,13 @@ public class JUnit4TestSearcher extends BaseFrameworkSearcher {
     }
 
     @Override
-    public boolean isTestMethod(IMethodBinding methodBinding) {
+    public boolean isTestMethodCandidate(IMethodBinding methodBinding) {
         final int modifiers = methodBinding.getModifiers();
         if (Modifier.isAbstract(modifiers) || Modifier.isStatic(modifiers) || !Modifier.isPublic(modifiers)) {
             return false;
         }
 
-        if (methodBinding.isConstructor() || !"void".equals(methodBinding.getReturnType().getName())) {
-            return false;
-        }
-
-        return this.findAnnotation(methodBinding.getAnnotations(), this.getTestMethodAnnotations());
+        return !methodBinding.isConstructor() && "void".equals(methodBinding.getReturnType().getName());
     }
 
     @Override
@@ -19,6 +19,7 @@ import com.microsoft.java.test.plugin.util.TestItemUtils;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
@@ -34,6 +35,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class JUnit5TestSearcher extends BaseFrameworkSearcher {
@@ -45,6 +47,9 @@ public class JUnit5TestSearcher extends BaseFrameworkSearcher {
 
     protected static final String DISPLAY_NAME_ANNOTATION_JUNIT5 = "org.junit.jupiter.api.DisplayName";
 
+    // annotation type key -> meta-annotation name -> whether the annotation type is meta-annotated by it
+    private static final Map<String, Map<String, Boolean>> metaAnnotationCache = new ConcurrentHashMap<>();
+
     public JUnit5TestSearcher() {
         super();
         this.testMethodAnnotations = new String[] { JUNIT_PLATFORM_TESTABLE };
@@ -61,17 +66,13 @@ public class JUnit5TestSearcher extends BaseFrameworkSearcher {
     }
 
     @Override
-    public boolean isTestMethod(IMethodBinding methodBinding) {
+    public boolean isTestMethodCandidate(IMethodBinding methodBinding) {
         final int modifiers = methodBinding.getModifiers();
         if (Modifier.isAbstract(modifiers) || Modifier.isStatic(modifiers) || Modifier.isPrivate(modifiers)) {
             return false;
         }
 
-        if (methodBinding.isConstructor()) {
-            return false;
-        }
-
-        return this.findAnnotation(methodBinding.getAnnotations(), this.getTestMethodAnnotations());
+        return !methodBinding.isConstructor();
     }
 
     @Override
@@ -104,8 +105,7 @@ public class JUnit5TestSearcher extends BaseFrameworkSearcher {
                 }
     
                 if (JUPITER_NESTED.equals(annotationName) || JUNIT_PLATFORM_TESTABLE.equals(annotationName)) {
-                    final Set<ITypeBinding> hierarchy = new HashSet<>();
-                    if (matchesNameInAnnotationHierarchy(annotation, annotationName, hierarchy)) {
+                    if (isMetaAnnotated(annotation, annotationName)) {
                         return true;
                     }
                 }
@@ -137,6 +137,42 @@ public class JUnit5TestSearcher extends BaseFrameworkSearcher {
         return result.values().toArray(new TestItem[0]);
     }
 
+    /**
+     * Drop the cached meta-annotation results if one of the annotation types declared in the unit is cached.
+     * An annotation type may be meta-annotated by another one, so all the results are dropped.
+     */
+    public static void invalidateMetaAnnotationCache(ICompilationUnit unit) {
+        if (metaAnnotationCache.isEmpty()) {
+            return;
+        }
+        try {
+            for (final IType type : unit.getAllTypes()) {
+                if (metaAnnotationCache.containsKey(type.getKey())) {
+                    metaAnnotationCache.clear();
+                    return;
+                }
+            }
+        } catch (final JavaModelException e) {
+            metaAnnotationCache.clear();
+        }
+    }
+
+    public static void clearMetaAnnotationCache() {
+        metaAnnotationCache.clear();
+    }
+
+    private boolean isMetaAnnotated(IAnnotationBinding annotation, String annotationName) {
+        final ITypeBinding type = annotation.getAnnotationType();
+        if (type == null) {
+            return false;
+        }
+        return metaAnnotationCache.computeIfAbsent(type.getKey(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(annotationName, k -> {
+                    final Set<ITypeBinding> hierarchy = new HashSet<>();
+                    return matchesNameInAnnotationHierarchy(annotation, annotationName, hierarchy);
+                });
+    }
+
     private boolean matchesName(ITypeBinding annotationType, String annotationName) {
         return TestFrameworkUtils.isEquivalentAnnotationType(annotationType, annotationName);
     }
@@ -30,6 +30,11 @@ public interface TestFrameworkSearcher {
 
     boolean isTestMethod(IMethodBinding methodBinding);
 
+    /**
+     * Check the modifiers and the signature of the method, the annotations are not checked.
+     */
+    boolean isTestMethodCandidate(IMethodBinding methodBinding);
+
     boolean isTestClass(IType type) throws JavaModelException;
 
     String[] getTestMethodAnnotations();
@@ -14,6 +14,7 @@ package com.microsoft.java.test.plugin.searcher;
 import com.microsoft.java.test.plugin.model.TestItem;
 import com.microsoft.java.test.plugin.model.TestKind;
 import com.microsoft.java.test.plugin.model.TestLevel;
+import com.microsoft.java.test.plugin.util.ClassFileTestScanner;
 import com.microsoft.java.test.plugin.util.TestItemUtils;
 
 import org.eclipse.core.runtime.CoreException;
@@ -35,7 +36,6 @@ import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.IAnnotationBinding;
-import org.eclipse.jdt.core.dom.IBinding;
 import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.Modifier;
@@ -49,6 +49,7 @@ import org.eclipse.jdt.core.search.SearchPattern;
 import org.eclipse.jdt.core.search.SearchRequestor;
 import org.eclipse.jdt.internal.junit.util.CoreTestSearchEngine;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -75,16 +76,13 @@ public class TestNGTestSearcher extends BaseFrameworkSearcher {
     }
 
     @Override
-    public boolean isTestMethod(final IMethodBinding methodBinding) {
+    public boolean isTestMethodCandidate(final IMethodBinding methodBinding) {
         final int modifiers = methodBinding.getModifiers();
         if (Modifier.isAbstract(modifiers) || Modifier.isStatic(modifiers)) {
             return false;
         }
 
-        if (methodBinding.isConstructor() || !"void".equals(methodBinding.getReturnType().getName())) {
-            return false;
-        }
-        return this.findAnnotation(methodBinding.getAnnotations(), this.getTestMethodAnnotations());
+        return !methodBinding.isConstructor() && "void".equals(methodBinding.getReturnType().getName());
     }
 
     @Override
@@ -110,13 +108,8 @@ public class TestNGTestSearcher extends BaseFrameworkSearcher {
             if (type.getCompilationUnit() != null) {
                 parser.setSource(type.getCompilationUnit());
             } else if (!isAvailable(type.getSourceRange())) { // class file with no source
-                parser.setProject(type.getJavaProject());
-                final IBinding[] bindings = parser.createBindings(new IJavaElement[] { type }, monitor);
-                if (bindings.length == 1 && bindings[0] instanceof ITypeBinding) {
-                    final ITypeBinding binding = (ITypeBinding) bindings[0];
-                    return isTest(binding);
-                }
-                return false;
+                // read the annotations from the class files instead of creating the bindings
+                return isTestClassFile(type);
             } else {
                 parser.setSource(type.getClassFile());
             }
@@ -135,6 +128,27 @@ public class TestNGTestSearcher extends BaseFrameworkSearcher {
         return false;
     }
 
+    private boolean isTestClassFile(final IType type) throws JavaModelException {
+        try {
+            if (ClassFileTestScanner.isAbstract(type.getClassFile().getBytes())) {
+                return false;
+            }
+            IType current = type;
+            while (current != null && current.getClassFile() != null) {
+                final byte[] bytes = current.getClassFile().getBytes();
+                if (ClassFileTestScanner.hasTestNGTestMethod(bytes)) {
+                    return true;
+                }
+                final String superclassName = ClassFileTestScanner.getSuperclassName(bytes);
+                current = superclassName == null ? null :
+                        type.getJavaProject().findType(superclassName.replace('$', '.'));
+            }
+            return false;
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
     private boolean isAvailable(final ISourceRange range) {
         return range != null && range.getOffset() != -1;
     }
@@ -0,0 +1,644 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.plugin.util;
+
+import com.microsoft.java.test.plugin.model.TestItem;
+import com.microsoft.java.test.plugin.model.TestKind;
+import com.microsoft.java.test.plugin.model.TestLevel;
+import com.microsoft.java.test.plugin.searcher.JUnit5TestSearcher;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.lsp4j.Range;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Discovers the tests from the compiled class files, without the Java model and the binding resolution.
+ *
+ * Only the constant pool entries and the <code>RuntimeVisibleAnnotations</code> attributes of the classes
+ * and the methods are read. The annotations composed from the JUnit 5 annotations are resolved when they
+ * are declared in the scanned class files as well, and so are the test methods inherited from the scanned
+ * super classes. A class file which fails to parse is logged and skipped.
+ *
+ * The whole scan is only served through the <code>vscode.java.test.search.classfiles</code> delegate command,
+ * which the test explorer of the client doesn't call. The explorer relies on the searchers of the Java model,
+ * and consumes this class through {@link com.microsoft.java.test.plugin.searcher.TestNGTestSearcher}, which
+ * checks the binary types with the single class methods, e.g. {@link #hasTestNGTestMethod(byte[])}.
+ */
+public class ClassFileTestScanner {
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    private static final String JAR_FILE_EXTENSION = ".jar";
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final int ACC_SYNTHETIC = 0x1000;
+    private static final int ACC_ANNOTATION = 0x2000;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+    private static final String CONSTRUCTOR_NAME = "<init>";
+
+    private static final Set<String> JUNIT4_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "org.junit.Test", "org.junit.experimental.theories.Theory"));
+
+    private static final Set<String> JUNIT5_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            JUnit5TestSearcher.JUNIT_PLATFORM_TESTABLE, "org.junit.jupiter.api.Test",
+            "org.junit.jupiter.api.RepeatedTest", "org.junit.jupiter.api.TestFactory",
+            "org.junit.jupiter.api.TestTemplate", "org.junit.jupiter.params.ParameterizedTest"));
+
+    private static final String TESTNG_ANNOTATION = "org.testng.annotations.Test";
+    private static final String TESTNG_ANNOTATION_PACKAGE = "org.testng.annotations.";
+
+    private ClassFileTestScanner() {}
+
+    /**
+     * Scan the class files in the output folders and the jars.
+     *
+     * @param files the output folders, the jars or the class files to scan
+     * @param projectName the name of the project that the tests are reported for
+     */
+    public static List<TestItem> scan(List<File> files, String projectName, IProgressMonitor monitor)
+            throws IOException {
+        final List<ClassInfo> classes = new ArrayList<>();
+        for (final File file : files) {
+            if (monitor.isCanceled()) {
+                return new LinkedList<>();
+            }
+            collectClasses(file, classes, monitor);
+        }
+
+        final Set<String> junit5Annotations = resolveJUnit5Annotations(classes);
+        final Map<String, ClassInfo> classesByName = new HashMap<>();
+        for (final ClassInfo classInfo : classes) {
+            classesByName.put(classInfo.name, classInfo);
+        }
+        final List<TestItem> result = new LinkedList<>();
+        for (final ClassInfo classInfo : classes) {
+            createTestItems(classInfo, classesByName, junit5Annotations, projectName, result);
+        }
+        return result;
+    }
+
+    /**
+     * Check if the class declares a TestNG test method, or is annotated with the TestNG <code>@Test</code> which
+     * makes its public methods tests.
+     */
+    public static boolean hasTestNGTestMethod(byte[] bytes) throws IOException {
+        final ClassInfo classInfo = parse(ByteBuffer.wrap(bytes), null);
+        return classInfo != null && (classInfo.annotations.contains(TESTNG_ANNOTATION) || classInfo.methods.stream()
+                .anyMatch(method -> method.annotations.contains(TESTNG_ANNOTATION)));
+    }
+
+    /**
+     * Return the fully qualified name of the super class, or <code>null</code> for <code>java.lang.Object</code>.
+     */
+    public static String getSuperclassName(byte[] bytes) throws IOException {
+        final ClassInfo classInfo = parse(ByteBuffer.wrap(bytes), null);
+        if (classInfo == null || classInfo.superName == null || "java.lang.Object".equals(classInfo.superName)) {
+            return null;
+        }
+        return classInfo.superName;
+    }
+
+    public static boolean isAbstract(byte[] bytes) throws IOException {
+        final ClassInfo classInfo = parse(ByteBuffer.wrap(bytes), null);
+        return classInfo == null || (classInfo.access & (ACC_ABSTRACT | ACC_INTERFACE)) != 0;
+    }
+
+    /**
+     * Return the binary names of the classes referenced in the constant pool of the class file. The array
+     * types are resolved to their element types.
+     */
+    public static Set<String> getReferencedClassNames(byte[] bytes) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                return new HashSet<>();
+            }
+            buffer.getInt(); // minor and major versions
+            return new ConstantPool(buffer).getClassNames();
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Malformed class file", e);
+        }
+    }
+
+    private static void collectClasses(File file, List<ClassInfo> classes, IProgressMonitor monitor)
+            throws IOException {
+        if (file.isDirectory()) {
+            final File[] children = file.listFiles();
+            if (children == null) {
+                return;
+            }
+            for (final File child : children) {
+                if (monitor.isCanceled()) {
+                    return;
+                }
+                collectClasses(child, classes, monitor);
+            }
+        } else if (file.getName().endsWith(CLASS_FILE_EXTENSION)) {
+            // class files are mapped rather than read, most of the bytes are skipped by the parser
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                addIfPresent(classes, parse(buffer, file.toURI().toString()));
+            } catch (final IOException e) {
+                JavaLanguageServerPlugin.logException("Skipped the class file which failed to scan: " + file, e);
+            }
+        } else if (file.getName().endsWith(JAR_FILE_EXTENSION)) {
+            collectClassesInJar(file, classes, monitor);
+        }
+    }
+
+    private static void collectClassesInJar(File file, List<ClassInfo> classes, IProgressMonitor monitor)
+            throws IOException {
+        // the entries are compressed, they are inflated into a buffer reused across the entries
+        final String jarUri = "jar:" + file.toURI().toString() + "!/";
+        byte[] bytes = new byte[8192];
+        try (ZipFile zipFile = new ZipFile(file)) {
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                if (monitor.isCanceled()) {
+                    return;
+                }
+                final ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory() || !entry.getName().endsWith(CLASS_FILE_EXTENSION) ||
+                        entry.getName().startsWith("META-INF/")) {
+                    continue;
+                }
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    bytes = readFully(in, bytes, entry.getSize());
+                    addIfPresent(classes, parse(ByteBuffer.wrap(bytes), jarUri + entry.getName()));
+                } catch (final IOException e) {
+                    JavaLanguageServerPlugin.logException("Skipped the class file which failed to scan: " +
+                            jarUri + entry.getName(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the stream into the buffer, the buffer is grown when the size of the entry is unknown or larger.
+     * The bytes after the class file are never read by the parser.
+     */
+    private static byte[] readFully(InputStream in, byte[] bytes, long size) throws IOException {
+        if (size > bytes.length) {
+            bytes = new byte[(int) size];
+        }
+        int offset = 0;
+        int read;
+        while ((read = in.read(bytes, offset, bytes.length - offset)) > 0) {
+            offset += read;
+            if (offset == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+        }
+        return bytes;
+    }
+
+    private static void addIfPresent(List<ClassInfo> classes, ClassInfo classInfo) {
+        if (classInfo != null) {
+            classes.add(classInfo);
+        }
+    }
+
+    /**
+     * Add the annotation types declared in the scanned classes and annotated, directly or not, with one of the
+     * JUnit 5 test annotations.
+     */
+    private static Set<String> resolveJUnit5Annotations(List<ClassInfo> classes) {
+        final Map<String, ClassInfo> annotationTypes = new HashMap<>();
+        for (final ClassInfo classInfo : classes) {
+            if ((classInfo.access & ACC_ANNOTATION) != 0) {
+                annotationTypes.put(classInfo.name, classInfo);
+            }
+        }
+
+        final Set<String> result = new HashSet<>(JUNIT5_ANNOTATIONS);
+        boolean changed = !annotationTypes.isEmpty();
+        while (changed) {
+            changed = false;
+            for (final ClassInfo annotationType : annotationTypes.values()) {
+                if (!result.contains(annotationType.name) && containsAny(annotationType.annotations, result)) {
+                    result.add(annotationType.name);
+                    changed = true;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The test methods are collected from the class and then from its scanned super classes, the methods
+     * overridden in a sub class are skipped in the super classes.
+     */
+    private static void createTestItems(ClassInfo classInfo, Map<String, ClassInfo> classesByName,
+            Set<String> junit5Annotations, String projectName, List<TestItem> result) {
+        if ((classInfo.access & (ACC_ABSTRACT | ACC_INTERFACE | ACC_SYNTHETIC)) != 0) {
+            return;
+        }
+
+        final List<TestItem> methodItems = new LinkedList<>();
+        final Set<String> visitedMethods = new HashSet<>();
+        final Set<String> visitedClasses = new HashSet<>();
+        TestKind classKind = null;
+        for (ClassInfo declaringClass = classInfo; declaringClass != null && visitedClasses.add(declaringClass.name);
+                declaringClass = classesByName.get(declaringClass.superName)) {
+            final boolean testNGClass = declaringClass.annotations.contains(TESTNG_ANNOTATION);
+            for (final MethodInfo method : declaringClass.methods) {
+                if (!visitedMethods.add(method.name + method.descriptor)) {
+                    continue;
+                }
+                final TestKind kind = getTestKind(method, junit5Annotations, testNGClass);
+                if (kind == null) {
+                    continue;
+                }
+                classKind = classKind == null ? kind : classKind;
+                final String fullName = classInfo.name + "#" + method.name;
+                methodItems.add(new TestItem(method.name, fullName, classInfo.uri, projectName, new Range(),
+                        TestLevel.METHOD, kind));
+            }
+        }
+
+        if (classKind == null) {
+            return;
+        }
+
+        final TestItem classItem = new TestItem(getSimpleName(classInfo.name), classInfo.name, classInfo.uri,
+                projectName, new Range(), TestLevel.CLASS, classKind);
+        final List<String> children = new ArrayList<>(methodItems.size());
+        for (final TestItem methodItem : methodItems) {
+            children.add(methodItem.getId());
+        }
+        classItem.setChildren(children);
+        result.add(classItem);
+        result.addAll(methodItems);
+    }
+
+    /**
+     * The modifiers and the signature are checked in the same way as the searcher of each framework does.
+     *
+     * @param testNGClass whether the declaring class is annotated with the TestNG <code>@Test</code>, which makes
+     *                    its public methods tests, except the configuration methods
+     */
+    private static TestKind getTestKind(MethodInfo method, Set<String> junit5Annotations, boolean testNGClass) {
+        if ((method.annotations.isEmpty() && !testNGClass) || CONSTRUCTOR_NAME.equals(method.name) ||
+                (method.access & (ACC_ABSTRACT | ACC_STATIC | ACC_SYNTHETIC)) != 0) {
+            return null;
+        }
+        final boolean returnsVoid = method.descriptor.endsWith(")V");
+        if (method.annotations.isEmpty()) {
+            return (method.access & ACC_PUBLIC) != 0 && returnsVoid ? TestKind.TestNG : null;
+        }
+        if (containsAny(method.annotations, JUNIT4_ANNOTATIONS) && (method.access & ACC_PUBLIC) != 0 &&
+                returnsVoid) {
+            return TestKind.JUnit;
+        }
+        if (containsAny(method.annotations, junit5Annotations) && (method.access & ACC_PRIVATE) == 0) {
+            return TestKind.JUnit5;
+        }
+        if (method.annotations.contains(TESTNG_ANNOTATION) && returnsVoid) {
+            return TestKind.TestNG;
+        }
+        if (testNGClass && (method.access & ACC_PUBLIC) != 0 && returnsVoid && !hasTestNGAnnotation(method)) {
+            return TestKind.TestNG;
+        }
+        return null;
+    }
+
+    /**
+     * Check if the method has one of the TestNG annotations, e.g. the <code>@BeforeMethod</code> of the
+     * configuration methods.
+     */
+    private static boolean hasTestNGAnnotation(MethodInfo method) {
+        for (final String annotation : method.annotations) {
+            if (annotation.startsWith(TESTNG_ANNOTATION_PACKAGE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsAny(List<String> annotations, Set<String> names) {
+        for (final String annotation : annotations) {
+            if (names.contains(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getSimpleName(String className) {
+        final int index = Math.max(className.lastIndexOf('.'), className.lastIndexOf('$'));
+        return className.substring(index + 1);
+    }
+
+    /**
+     * Parse the class file, see the chapter 4 of the Java Virtual Machine Specification.
+     *
+     * @return the class, or <code>null</code> if it's not a valid class file
+     */
+    private static ClassInfo parse(ByteBuffer buffer, String uri) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                return null;
+            }
+            buffer.getInt(); // minor and major versions
+            final ConstantPool pool = new ConstantPool(buffer);
+
+            final ClassInfo classInfo = new ClassInfo();
+            classInfo.uri = uri;
+            classInfo.access = buffer.getShort() & 0xFFFF;
+            classInfo.name = pool.getClassName(buffer.getShort() & 0xFFFF);
+            final int superIndex = buffer.getShort() & 0xFFFF;
+            classInfo.superName = superIndex == 0 ? null : pool.getClassName(superIndex);
+            skip(buffer, (buffer.getShort() & 0xFFFF) * 2); // interfaces
+
+            final int fieldCount = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < fieldCount; i++) {
+                skip(buffer, 6);
+                readAnnotations(buffer, pool, null);
+            }
+
+            final int methodCount = buffer.getShort() & 0xFFFF;
+            classInfo.methods = new ArrayList<>(methodCount);
+            for (int i = 0; i < methodCount; i++) {
+                final MethodInfo method = new MethodInfo();
+                method.access = buffer.getShort() & 0xFFFF;
+                method.name = pool.getUtf8(buffer.getShort() & 0xFFFF);
+                method.descriptor = pool.getUtf8(buffer.getShort() & 0xFFFF);
+                method.annotations = new ArrayList<>();
+                readAnnotations(buffer, pool, method.annotations);
+                classInfo.methods.add(method);
+            }
+
+            classInfo.annotations = new ArrayList<>();
+            readAnnotations(buffer, pool, classInfo.annotations);
+            return classInfo;
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Malformed class file: " + uri, e);
+        }
+    }
+
+    /**
+     * Read the attributes, the names of the runtime visible annotations are added to the result if not
+     * <code>null</code>, the other attributes are skipped.
+     */
+    private static void readAnnotations(ByteBuffer buffer, ConstantPool pool, List<String> result) {
+        final int attributeCount = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < attributeCount; i++) {
+            final int nameIndex = buffer.getShort() & 0xFFFF;
+            final int length = buffer.getInt();
+            if (result == null || !pool.isUtf8(nameIndex, RUNTIME_VISIBLE_ANNOTATIONS)) {
+                skip(buffer, length);
+                continue;
+            }
+            final int end = buffer.position() + length;
+            final int annotationCount = buffer.getShort() & 0xFFFF;
+            for (int j = 0; j < annotationCount; j++) {
+                result.add(toClassName(pool.getUtf8(buffer.getShort() & 0xFFFF)));
+                skipElementValuePairs(buffer);
+            }
+            buffer.position(end);
+        }
+    }
+
+    private static void skipElementValuePairs(ByteBuffer buffer) {
+        final int pairCount = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < pairCount; i++) {
+            skip(buffer, 2);
+            skipElementValue(buffer);
+        }
+    }
+
+    private static void skipElementValue(ByteBuffer buffer) {
+        final char tag = (char) buffer.get();
+        switch (tag) {
+            case 'e':
+                skip(buffer, 4);
+                break;
+            case '@':
+                skip(buffer, 2);
+                skipElementValuePairs(buffer);
+                break;
+            case '[':
+                final int valueCount = buffer.getShort() & 0xFFFF;
+                for (int i = 0; i < valueCount; i++) {
+                    skipElementValue(buffer);
+                }
+                break;
+            default:
+                // constant values and class literals
+                skip(buffer, 2);
+                break;
+        }
+    }
+
+    private static void skip(ByteBuffer buffer, int length) {
+        buffer.position(buffer.position() + length);
+    }
+
+    /**
+     * Convert a field descriptor like <code>Lorg/junit/Test;</code> or an internal name like
+     * <code>org/junit/Test</code> to the binary name.
+     */
+    private static String toClassName(String name) {
+        if (name.startsWith("L") && name.endsWith(";")) {
+            name = name.substring(1, name.length() - 1);
+        }
+        return name.replace('/', '.');
+    }
+
+    /**
+     * Keeps the offsets of the entries only, the <code>CONSTANT_Utf8</code> entries are decoded on demand.
+     */
+    private static class ConstantPool {
+        private static final int UTF8 = 1;
+        private static final int CLASS = 7;
+
+        private final ByteBuffer buffer;
+        private final int[] offsets;
+        private final byte[] tags;
+        private final String[] strings;
+
+        ConstantPool(ByteBuffer buffer) {
+            this.buffer = buffer;
+            final int count = buffer.getShort() & 0xFFFF;
+            this.offsets = new int[count];
+            this.tags = new byte[count];
+            this.strings = new String[count];
+            for (int i = 1; i < count; i++) {
+                final byte tag = buffer.get();
+                tags[i] = tag;
+                offsets[i] = buffer.position();
+                switch (tag) {
+                    case UTF8:
+                        skip(buffer, buffer.getShort() & 0xFFFF);
+                        break;
+                    case CLASS:
+                    case 8: // String
+                    case 16: // MethodType
+                    case 19: // Module
+                    case 20: // Package
+                        skip(buffer, 2);
+                        break;
+                    case 15: // MethodHandle
+                        skip(buffer, 3);
+                        break;
+                    case 3: // Integer
+                    case 4: // Float
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        skip(buffer, 4);
+                        break;
+                    case 5: // Long
+                    case 6: // Double
+                        skip(buffer, 8);
+                        i++; // takes two entries
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown constant pool tag: " + tag);
+                }
+            }
+        }
+
+        String getClassName(int index) {
+            checkTag(index, CLASS);
+            return toClassName(getUtf8(buffer.getShort(offsets[index]) & 0xFFFF));
+        }
+
+        Set<String> getClassNames() {
+            final Set<String> result = new HashSet<>();
+            for (int i = 1; i < tags.length; i++) {
+                if (tags[i] == CLASS) {
+                    String name = getUtf8(buffer.getShort(offsets[i]) & 0xFFFF);
+                    if (name.startsWith("[")) {
+                        name = name.substring(name.lastIndexOf('[') + 1);
+                        if (!name.startsWith("L")) {
+                            // array of primitive type
+                            continue;
+                        }
+                    }
+                    result.add(toClassName(name));
+                }
+            }
+            return result;
+        }
+
+        String getUtf8(int index) {
+            checkTag(index, UTF8);
+            if (strings[index] == null) {
+                strings[index] = decode(offsets[index]);
+            }
+            return strings[index];
+        }
+
+        /**
+         * Compare the entry with an ASCII string without decoding it.
+         */
+        boolean isUtf8(int index, String value) {
+            checkTag(index, UTF8);
+            final int offset = offsets[index];
+            final int length = buffer.getShort(offset) & 0xFFFF;
+            if (length != value.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(offset + 2 + i) != value.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void checkTag(int index, int tag) {
+            if (index <= 0 || index >= tags.length || tags[index] != tag) {
+                throw new IllegalArgumentException("Invalid constant pool index: " + index);
+            }
+        }
+
+        /**
+         * Decode the modified UTF-8 string, see the section 4.4.7 of the Java Virtual Machine Specification.
+         */
+        private String decode(int offset) {
+            final int length = buffer.getShort(offset) & 0xFFFF;
+            final byte[] bytes = new byte[length];
+            boolean ascii = true;
+            for (int i = 0; i < length; i++) {
+                bytes[i] = buffer.get(offset + 2 + i);
+                ascii &= bytes[i] > 0;
+            }
+            if (ascii) {
+                return new String(bytes, StandardCharsets.US_ASCII);
+            }
+
+            final StringBuilder builder = new StringBuilder(length);
+            int i = 0;
+            while (i < length) {
+                final int b = bytes[i] & 0xFF;
+                if (b < 0x80) {
+                    builder.append((char) b);
+                    i++;
+                } else if ((b & 0xE0) == 0xC0) {
+                    builder.append((char) (((b & 0x1F) << 6) | (bytes[i + 1] & 0x3F)));
+                    i += 2;
+                } else {
+                    builder.append((char) (((b & 0x0F) << 12) | ((bytes[i + 1] & 0x3F) << 6) |
+                            (bytes[i + 2] & 0x3F)));
+                    i += 3;
+                }
+            }
+            return builder.toString();
+        }
+    }
+
+    private static class ClassInfo {
+        String uri;
+        String name;
+        String superName;
+        int access;
+        List<String> annotations;
+        List<MethodInfo> methods;
+    }
+
+    private static class MethodInfo {
+        String name;
+        String descriptor;
+        int access;
+        List<String> annotations;
+    }
+}
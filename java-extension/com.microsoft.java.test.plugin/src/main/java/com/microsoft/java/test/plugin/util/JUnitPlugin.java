@@ -11,11 +11,15 @@
 
 package com.microsoft.java.test.plugin.util;
 
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.JavaCore;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
 
 public class JUnitPlugin implements BundleActivator {
 
+    private final JavaModelChangeListener javaModelChangeListener = new JavaModelChangeListener();
+
     /*
      * (non-Javadoc)
      *
@@ -23,6 +27,8 @@ public class JUnitPlugin implements BundleActivator {
      */
     @Override
     public void start(BundleContext context) throws Exception {
+        JavaCore.addElementChangedListener(javaModelChangeListener,
+                ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
     }
 
     /*
@@ -32,6 +38,9 @@ public class JUnitPlugin implements BundleActivator {
      */
     @Override
     public void stop(BundleContext context) throws Exception {
+        JavaCore.removeElementChangedListener(javaModelChangeListener);
+        ProjectTestUtils.invalidateAllTestPaths();
+        ProjectLocationIndex.clear();
     }
 
 }
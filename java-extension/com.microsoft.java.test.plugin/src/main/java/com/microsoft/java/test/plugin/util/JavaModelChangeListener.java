@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.plugin.util;
+
+import com.microsoft.java.test.plugin.launchers.LaunchArgumentsPreresolver;
+import com.microsoft.java.test.plugin.launchers.RerunLaunchUtils;
+import com.microsoft.java.test.plugin.searcher.JUnit5TestSearcher;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+
+/**
+ * Refreshes the cached locations, test source paths and launch arguments of the projects which are changed, and
+ * invalidates the cached test items and meta-annotations of the compilation units which are changed or reconciled.
+ * The test items of the units in the removed packages and package fragment roots are invalidated too.
+ */
+public class JavaModelChangeListener implements IElementChangedListener {
+
+    private static final int PROJECT_CHANGED_FLAGS = IJavaElementDelta.F_CLASSPATH_CHANGED |
+            IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_OPENED |
+            IJavaElementDelta.F_CLOSED;
+
+    @Override
+    public void elementChanged(ElementChangedEvent event) {
+        visit(event.getDelta());
+    }
+
+    private void visit(IJavaElementDelta delta) {
+        final IJavaElement element = delta.getElement();
+        switch (element.getElementType()) {
+            case IJavaElement.JAVA_PROJECT:
+                if (delta.getKind() != IJavaElementDelta.CHANGED ||
+                        (delta.getFlags() & PROJECT_CHANGED_FLAGS) != 0) {
+                    ProjectLocationIndex.update((IJavaProject) element);
+                    ProjectTestUtils.refreshTestPath((IJavaProject) element);
+                    TestItemCache.invalidate((IJavaProject) element);
+                    JUnit5TestSearcher.clearMetaAnnotationCache();
+                    TestFrameworkUtils.invalidateDispatchTable((IJavaProject) element);
+                    LaunchArgumentsPreresolver.invalidate((IJavaProject) element);
+                    RerunLaunchUtils.invalidate(element.getJavaProject().getProject().getName());
+                    return;
+                }
+                break;
+            case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+            case IJavaElement.PACKAGE_FRAGMENT:
+                if (delta.getKind() == IJavaElementDelta.REMOVED ||
+                        (delta.getFlags() & IJavaElementDelta.F_REMOVED_FROM_CLASSPATH) != 0) {
+                    TestItemCache.invalidateContainer(element);
+                    return;
+                }
+                break;
+            case IJavaElement.COMPILATION_UNIT:
+                TestItemCache.invalidate((ICompilationUnit) element);
+                JUnit5TestSearcher.invalidateMetaAnnotationCache((ICompilationUnit) element);
+                TestFrameworkUtils.invalidateDispatchTable((ICompilationUnit) element);
+                return;
+            default:
+                break;
+        }
+
+        for (final IJavaElementDelta child : delta.getAffectedChildren()) {
+            visit(child);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.plugin.util;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.ls.core.internal.ProjectUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.eclipse.jdt.ls.core.internal.ProjectUtils.WORKSPACE_LINK;
+
+/**
+ * A trie of the path segments of the project locations, to find the projects under a path without checking
+ * every project in the workspace. The linked folders of the invisible projects are indexed as well.
+ *
+ * The trie is built at the first lookup, and updated by {@link JavaModelChangeListener} when a project is
+ * added, removed, opened or closed.
+ */
+@SuppressWarnings("restriction")
+public class ProjectLocationIndex {
+
+    private static final Node root = new Node();
+    private static final Map<IJavaProject, List<IPath>> projectLocations = new HashMap<>();
+    private static boolean initialized = false;
+
+    private ProjectLocationIndex() {}
+
+    /**
+     * Find the Java projects located under the path, or whose linked folder is under the path.
+     */
+    public static synchronized Set<IJavaProject> findProjects(IPath path) {
+        initialize();
+        Node node = root;
+        for (final String segment : getSegments(path)) {
+            node = node.children.get(segment);
+            if (node == null) {
+                return new HashSet<>();
+            }
+        }
+
+        final Set<IJavaProject> result = new HashSet<>();
+        collectProjects(node, result);
+        return result;
+    }
+
+    /**
+     * Index the project again, or remove it if it's removed or closed.
+     */
+    public static synchronized void update(IJavaProject project) {
+        if (!initialized) {
+            return;
+        }
+        remove(project);
+        if (project.exists() && project.getProject().isOpen()) {
+            add(project);
+        }
+    }
+
+    public static synchronized void clear() {
+        root.children.clear();
+        root.projects.clear();
+        projectLocations.clear();
+        initialized = false;
+    }
+
+    private static void initialize() {
+        if (initialized) {
+            return;
+        }
+        for (final IJavaProject project : ProjectUtils.getJavaProjects()) {
+            add(project);
+        }
+        initialized = true;
+    }
+
+    private static void add(IJavaProject project) {
+        final List<IPath> locations = getLocations(project.getProject());
+        for (final IPath location : locations) {
+            Node node = root;
+            for (final String segment : getSegments(location)) {
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+            node.projects.add(project);
+        }
+        projectLocations.put(project, locations);
+    }
+
+    private static void remove(IJavaProject project) {
+        final List<IPath> locations = projectLocations.remove(project);
+        if (locations == null) {
+            return;
+        }
+        for (final IPath location : locations) {
+            remove(root, getSegments(location), 0, project);
+        }
+    }
+
+    /**
+     * Remove the project from the node of the path, and prune the nodes left empty.
+     *
+     * @return if the node is empty after the removal
+     */
+    private static boolean remove(Node node, List<String> segments, int index, IJavaProject project) {
+        if (index == segments.size()) {
+            node.projects.remove(project);
+        } else {
+            final Node child = node.children.get(segments.get(index));
+            if (child != null && remove(child, segments, index + 1, project)) {
+                node.children.remove(segments.get(index));
+            }
+        }
+        return node.projects.isEmpty() && node.children.isEmpty();
+    }
+
+    private static void collectProjects(Node node, Set<IJavaProject> result) {
+        result.addAll(node.projects);
+        for (final Node child : node.children.values()) {
+            collectProjects(child, result);
+        }
+    }
+
+    private static List<IPath> getLocations(IProject project) {
+        final List<IPath> locations = new ArrayList<>(2);
+        if (project.getLocation() != null) {
+            locations.add(project.getLocation());
+        }
+        // invisible project
+        final IPath linkedLocation = project.getFolder(WORKSPACE_LINK).getLocation();
+        if (linkedLocation != null && !locations.contains(linkedLocation)) {
+            locations.add(linkedLocation);
+        }
+        return locations;
+    }
+
+    private static List<String> getSegments(IPath path) {
+        final List<String> segments = new ArrayList<>(path.segmentCount() + 1);
+        // the device is compared case-insensitively as IPath#isPrefixOf does
+        segments.add(path.getDevice() == null ? "" : path.getDevice().toLowerCase());
+        for (final String segment : path.segments()) {
+            segments.add(segment);
+        }
+        return segments;
+    }
+
+    private static class Node {
+        final Map<String, Node> children = new HashMap<>();
+        final Set<IJavaProject> projects = new LinkedHashSet<>();
+    }
+}
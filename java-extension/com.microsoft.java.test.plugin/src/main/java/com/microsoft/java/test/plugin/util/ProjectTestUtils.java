@@ -12,23 +12,34 @@
 package com.microsoft.java.test.plugin.util;
 
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.IClasspathAttribute;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.internal.core.ClasspathEntry;
+import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
 import org.eclipse.jdt.ls.core.internal.ResourceUtils;
 import org.eclipse.jdt.ls.core.internal.managers.ProjectsManager;
 
+import java.io.File;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static org.eclipse.jdt.ls.core.internal.ProjectUtils.WORKSPACE_LINK;
@@ -40,6 +51,32 @@ public final class ProjectTestUtils {
     private static final String MAVEN_SCOPE_ATTRIBUTE = "maven.scope";
     private static final String GRADLE_SCOPE_ATTRIBUTE = "gradle_scope";
 
+    // the client command executed when the test source paths are changed, see testFileWatcher.ts
+    private static final String TEST_SOURCE_PATHS_CHANGED = "java.test.sourcePathsChanged";
+    private static final long NOTIFICATION_DELAY = 500L;
+
+    private static final Map<IJavaProject, List<IPath>> testPathCache = new ConcurrentHashMap<>();
+    private static final Map<String, List<String>> sourcePathsCache = new ConcurrentHashMap<>();
+
+    /**
+     * Deltas of many projects come at the same time when a workspace is imported, the client is notified
+     * once after them.
+     */
+    private static final Job notificationJob = new Job("Notify the test source paths changes") {
+        @Override
+        protected IStatus run(IProgressMonitor monitor) {
+            final JavaClientConnection connection = JavaLanguageServerPlugin.getInstance().getClientConnection();
+            if (connection != null) {
+                connection.sendNotification(TEST_SOURCE_PATHS_CHANGED);
+            }
+            return Status.OK_STATUS;
+        }
+    };
+
+    static {
+        notificationJob.setSystem(true);
+    }
+
     /**
      * Method to get the valid paths which contains test code
      *
@@ -58,33 +95,114 @@ public final class ProjectTestUtils {
 
         final ArrayList<String> uriArray = ((ArrayList<String>) arguments.get(0));
         for (final String uri : uriArray) {
-            final Set<IJavaProject> projectSet = parseProjects(uri);
-            for (final IJavaProject project : projectSet) {
-                for (final IPath path : getTestPath(project)) {
-                    final IPath relativePath = path.makeRelativeTo(project.getPath());
-                    resultList.add(project.getProject().getFolder(relativePath).getLocation().toOSString());
-                }
+            List<String> sourcePaths = sourcePathsCache.get(uri);
+            if (sourcePaths == null) {
+                sourcePaths = listTestSourcePaths(uri);
+                sourcePathsCache.put(uri, sourcePaths);
             }
+            resultList.addAll(sourcePaths);
         }
         return resultList.toArray(new String[resultList.size()]);
     }
 
+    private static List<String> listTestSourcePaths(String uri) throws JavaModelException {
+        final List<String> resultList = new ArrayList<>();
+        final Set<IJavaProject> projectSet = parseProjects(uri);
+        for (final IJavaProject project : projectSet) {
+            for (final IPath path : getTestPath(project)) {
+                final IPath relativePath = path.makeRelativeTo(project.getPath());
+                resultList.add(project.getProject().getFolder(relativePath).getLocation().toOSString());
+            }
+        }
+        return Collections.unmodifiableList(resultList);
+    }
+
     public static Set<IJavaProject> parseProjects(String uriStr) {
         final IPath parentPath = ResourceUtils.filePathFromURI(uriStr);
         if (parentPath == null) {
             return Collections.emptySet();
         }
-        return Arrays.stream(ProjectUtils.getJavaProjects())
-                .filter(p -> isProjectBelongToPath(p.getProject(), parentPath))
-                .collect(Collectors.toSet());
+        return ProjectLocationIndex.findProjects(parentPath);
     }
 
+    /**
+     * Get the paths of the test source roots in the project. The result is cached per project, and the cache
+     * is refreshed by {@link JavaModelChangeListener} when the classpath of the project changes.
+     */
     public static List<IPath> getTestPath(IJavaProject project) throws JavaModelException {
+        final List<IPath> cachedPaths = testPathCache.get(project);
+        if (cachedPaths != null) {
+            return cachedPaths;
+        }
+
         final IClasspathEntry[] entries = project.getRawClasspath();
-        return Arrays.stream(entries)
+        final List<IPath> paths = Collections.unmodifiableList(Arrays.stream(entries)
                 .filter(entry -> isTest(project, entry))
                 .map(entry -> entry.getPath())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        testPathCache.put(project, paths);
+        return paths;
+    }
+
+    /**
+     * Get the folders where the test source roots of the project are compiled to.
+     */
+    public static List<File> getTestOutputLocations(IJavaProject project) throws JavaModelException {
+        final Set<File> result = new LinkedHashSet<>();
+        for (final IPath path : getTestPath(project)) {
+            addOutputLocation(project, project.getClasspathEntryFor(path), result);
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Get the folders where all the source roots of the project are compiled to.
+     */
+    public static List<File> getOutputLocations(IJavaProject project) throws JavaModelException {
+        final Set<File> result = new LinkedHashSet<>();
+        for (final IClasspathEntry entry : project.getRawClasspath()) {
+            if (entry.getEntryKind() == IClasspathEntry.CPE_SOURCE) {
+                addOutputLocation(project, entry, result);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static void addOutputLocation(IJavaProject project, IClasspathEntry entry, Set<File> result)
+            throws JavaModelException {
+        final IPath outputPath = entry == null || entry.getOutputLocation() == null ?
+                project.getOutputLocation() : entry.getOutputLocation();
+        final IPath location = ResourcesPlugin.getWorkspace().getRoot().getFolder(outputPath).getLocation();
+        if (location != null) {
+            result.add(location.toFile());
+        }
+    }
+
+    /**
+     * Recompute the test source paths of the project whose classpath is changed, or which is added or removed.
+     * The client is notified when the paths are different from the cached ones.
+     */
+    public static void refreshTestPath(IJavaProject project) {
+        final List<IPath> oldPaths = testPathCache.remove(project);
+        List<IPath> newPaths = Collections.emptyList();
+        if (project.exists()) {
+            try {
+                newPaths = getTestPath(project);
+            } catch (final JavaModelException e) {
+                // the project is closed
+            }
+        }
+
+        if (!Objects.equals(oldPaths == null ? Collections.emptyList() : oldPaths, newPaths)) {
+            sourcePathsCache.clear();
+            notificationJob.schedule(NOTIFICATION_DELAY);
+        }
+    }
+
+    public static void invalidateAllTestPaths() {
+        testPathCache.clear();
+        sourcePathsCache.clear();
+        notificationJob.cancel();
     }
 
     public static boolean isTest(IJavaProject project, IPath path) {
@@ -20,16 +20,25 @@ import com.microsoft.java.test.plugin.searcher.TestFrameworkSearcher;
 import com.microsoft.java.test.plugin.searcher.TestNGTestSearcher;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.IAnnotationBinding;
 import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.internal.junit.util.CoreTestSearchEngine;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TestFrameworkUtils {
 
@@ -40,6 +49,10 @@ public class TestFrameworkUtils {
     public static final TestFrameworkSearcher[] FRAMEWORK_SEARCHERS = new TestFrameworkSearcher[] {
         JUNIT4_TEST_SEARCHER, JUNIT5_TEST_SEARCHER, TESTNG_TEST_SEARCHER };
 
+    // project -> annotation type key -> the searchers whose test method annotations match the annotation type
+    private static final Map<IJavaProject, Map<String, TestFrameworkSearcher[]>> dispatchTables =
+            new ConcurrentHashMap<>();
+
     public static void findTestItemsInTypeBinding(ITypeBinding typeBinding, List<TestItem> result,
             TestItem parentClassTestItem, IProgressMonitor monitor) throws JavaModelException {
         if (monitor.isCanceled()) {
@@ -58,16 +71,15 @@ public class TestFrameworkUtils {
             return;
         }
 
+        final Map<String, TestFrameworkSearcher[]> dispatchTable = getDispatchTable(type.getJavaProject());
         final List<TestItem> testMethods = new LinkedList<>();
         final List<String> testMethodIds = new LinkedList<>();
         for (final IMethodBinding methodBinding : typeBinding.getDeclaredMethods()) {
-            for (final TestFrameworkSearcher searcher : searchers) {
-                if (searcher.isTestMethod(methodBinding)) {
-                    final TestItem methodItem = searcher.parseTestItem(methodBinding);
-                    testMethods.add(methodItem);
-                    testMethodIds.add(methodItem.getId());
-                    break;
-                }
+            final TestFrameworkSearcher searcher = classifyMethod(methodBinding, searchers, dispatchTable);
+            if (searcher != null) {
+                final TestItem methodItem = searcher.parseTestItem(methodBinding);
+                testMethods.add(methodItem);
+                testMethodIds.add(methodItem.getId());
             }
         }
         TestItem classItem = null;
@@ -100,6 +112,80 @@ public class TestFrameworkUtils {
         }
     }
 
+    /**
+     * Drop the dispatch table of the project, e.g. when its classpath changes.
+     */
+    public static void invalidateDispatchTable(IJavaProject project) {
+        dispatchTables.remove(project);
+    }
+
+    /**
+     * Drop all the dispatch tables if one of the annotation types declared in the unit is in a table. The annotation
+     * may be used by the projects which depend on the project of the unit, so the tables of all the projects are
+     * dropped, like the meta-annotation cache of the JUnit 5 searcher.
+     */
+    public static void invalidateDispatchTable(ICompilationUnit unit) {
+        if (dispatchTables.isEmpty()) {
+            return;
+        }
+        try {
+            for (final IType type : unit.getAllTypes()) {
+                final String key = type.getKey();
+                for (final Map<String, TestFrameworkSearcher[]> dispatchTable : dispatchTables.values()) {
+                    if (dispatchTable.containsKey(key)) {
+                        dispatchTables.clear();
+                        return;
+                    }
+                }
+            }
+        } catch (final JavaModelException e) {
+            dispatchTables.clear();
+        }
+    }
+
+    /**
+     * Classify the method with one pass over its annotations. The searchers that an annotation type
+     * stands for are looked up by the annotation type key in the dispatch table, and resolved at the first
+     * time the annotation type is met in the project.
+     *
+     * @param searchers the searchers applicable to the declaring type, in the order of precedence
+     * @return the searcher of the first framework that the method is a test of, or <code>null</code>
+     */
+    private static TestFrameworkSearcher classifyMethod(IMethodBinding methodBinding,
+            List<TestFrameworkSearcher> searchers, Map<String, TestFrameworkSearcher[]> dispatchTable) {
+        final Set<TestFrameworkSearcher> matchedSearchers = new HashSet<>();
+        for (final IAnnotationBinding annotation : methodBinding.getAnnotations()) {
+            if (annotation == null || annotation.getAnnotationType() == null) {
+                continue;
+            }
+            final TestFrameworkSearcher[] annotationSearchers = dispatchTable.computeIfAbsent(
+                    annotation.getAnnotationType().getKey(), key -> resolveSearchers(annotation));
+            Collections.addAll(matchedSearchers, annotationSearchers);
+        }
+
+        if (matchedSearchers.isEmpty()) {
+            return null;
+        }
+
+        for (final TestFrameworkSearcher searcher : searchers) {
+            if (matchedSearchers.contains(searcher) && searcher.isTestMethodCandidate(methodBinding)) {
+                return searcher;
+            }
+        }
+        return null;
+    }
+
+    private static TestFrameworkSearcher[] resolveSearchers(IAnnotationBinding annotation) {
+        final IAnnotationBinding[] annotations = new IAnnotationBinding[] { annotation };
+        return Arrays.stream(FRAMEWORK_SEARCHERS)
+                .filter(searcher -> searcher.findAnnotation(annotations, searcher.getTestMethodAnnotations()))
+                .toArray(TestFrameworkSearcher[]::new);
+    }
+
+    private static Map<String, TestFrameworkSearcher[]> getDispatchTable(IJavaProject project) {
+        return dispatchTables.computeIfAbsent(project, p -> new ConcurrentHashMap<>());
+    }
+
     public static boolean isEquivalentAnnotationType(ITypeBinding annotationType, String annotationName) {
         return annotationType != null && Objects.equals(annotationType.getQualifiedName(), annotationName);
     }
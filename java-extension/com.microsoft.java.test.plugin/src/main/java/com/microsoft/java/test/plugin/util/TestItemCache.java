@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.plugin.util;
+
+import com.microsoft.java.test.plugin.model.TestItem;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IAnnotationBinding;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The test items discovered in a compilation unit, shared by the Code Lens search and the class expansion
+ * of the Test Explorer. The entries are invalidated by {@link JavaModelChangeListener}.
+ *
+ * The test items of a unit also depend on the source types it uses: the super types which declare inherited test
+ * methods and the annotation types, including their meta-annotations. The entry of a unit is invalidated with the
+ * units it depends on.
+ */
+@SuppressWarnings("restriction")
+public final class TestItemCache {
+
+    private static final int MAX_ENTRIES = 256;
+
+    private static final Map<ICompilationUnit, Map<String, List<TestItem>>> cache = Collections.synchronizedMap(
+            new LinkedHashMap<ICompilationUnit, Map<String, List<TestItem>>>(16, 0.75f, true /* accessOrder */) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ICompilationUnit, Map<String, List<TestItem>>> eldest) {
+                    // the index keeps the locations of the evicted units, they are only dropped on changes
+                    if (size() > MAX_ENTRIES) {
+                        removeDependencies(eldest.getKey());
+                        return true;
+                    }
+                    return false;
+                }
+            });
+
+    // the units whose test items depend on the types declared in the key unit
+    private static final Map<ICompilationUnit, Set<ICompilationUnit>> dependents = new ConcurrentHashMap<>();
+
+    // the reverse of the dependents, to drop the cached unit from the dependents when it leaves the cache
+    private static final Map<ICompilationUnit, Set<ICompilationUnit>> dependencies = new ConcurrentHashMap<>();
+
+    private TestItemCache() {}
+
+    /**
+     * Get the test items of a top level type, including the ones in its member types.
+     *
+     * @param unit the compilation unit which declares the type
+     * @param topLevelTypeName the fully qualified name of the top level type
+     * @return the test items, or <code>null</code> if the compilation unit cannot be parsed
+     */
+    public static List<TestItem> getTestItems(ICompilationUnit unit, String topLevelTypeName,
+            IProgressMonitor monitor) throws JavaModelException {
+        final ICompilationUnit primary = unit.getPrimary();
+        Map<String, List<TestItem>> testItemsByType = cache.get(primary);
+        if (testItemsByType == null) {
+            final Set<ICompilationUnit> unitDependencies = new HashSet<>();
+            testItemsByType = discover(primary, unitDependencies, monitor);
+            if (testItemsByType == null) {
+                return null;
+            }
+            unitDependencies.remove(primary);
+            for (final ICompilationUnit dependency : unitDependencies) {
+                dependents.compute(dependency, (k, units) -> {
+                    final Set<ICompilationUnit> result = units == null ? ConcurrentHashMap.newKeySet() : units;
+                    result.add(primary);
+                    return result;
+                });
+            }
+            dependencies.put(primary, unitDependencies);
+            cache.put(primary, testItemsByType);
+            final List<TestItem> allItems = new LinkedList<>();
+            testItemsByType.values().forEach(allItems::addAll);
+            TestLocationIndex.add(getUri(primary), allItems);
+        }
+
+        final List<TestItem> testItems = testItemsByType.get(topLevelTypeName);
+        return testItems == null ? Collections.emptyList() : testItems;
+    }
+
+    public static void invalidate(ICompilationUnit unit) {
+        final ICompilationUnit primary = unit.getPrimary();
+        cache.remove(primary);
+        removeDependencies(primary);
+        TestLocationIndex.remove(getUri(primary));
+        // removed before the recursion, which stops at the cycles
+        final Set<ICompilationUnit> units = dependents.remove(primary);
+        if (units != null) {
+            units.forEach(TestItemCache::invalidate);
+        }
+    }
+
+    public static void invalidate(IJavaProject project) {
+        for (final ICompilationUnit unit : new ArrayList<>(dependents.keySet())) {
+            if (project.equals(unit.getJavaProject())) {
+                invalidate(unit);
+            }
+        }
+        synchronized (cache) {
+            cache.keySet().removeIf(unit -> {
+                if (project.equals(unit.getJavaProject())) {
+                    removeDependencies(unit);
+                    return true;
+                }
+                return false;
+            });
+        }
+        TestLocationIndex.removeProject(project.getProject().getName());
+    }
+
+    /**
+     * Invalidate the units in a package or a package fragment root which is removed, the deltas of its
+     * children are not reported.
+     */
+    public static void invalidateContainer(IJavaElement container) {
+        final IPath path = container.getPath();
+        final List<ICompilationUnit> units = new ArrayList<>(dependents.keySet());
+        synchronized (cache) {
+            units.addAll(cache.keySet());
+        }
+        for (final ICompilationUnit unit : units) {
+            if (path.isPrefixOf(unit.getPath())) {
+                invalidate(unit);
+            }
+        }
+        if (container.getResource() != null) {
+            // the index also keeps the units evicted from the cache
+            TestLocationIndex.removeUnder(JDTUtils.getFileURI(container.getResource()));
+        }
+    }
+
+    /**
+     * Remove the unit from the dependents of the units it depends on, once it's no longer cached. The dependents
+     * of the unit itself are kept, they are still invalidated when the unit changes.
+     */
+    private static void removeDependencies(ICompilationUnit unit) {
+        final Set<ICompilationUnit> unitDependencies = dependencies.remove(unit);
+        if (unitDependencies == null) {
+            return;
+        }
+        for (final ICompilationUnit dependency : unitDependencies) {
+            dependents.computeIfPresent(dependency, (k, units) -> {
+                units.remove(unit);
+                return units.isEmpty() ? null : units;
+            });
+        }
+    }
+
+    private static String getUri(ICompilationUnit unit) {
+        // the same URI as the locations of the test items
+        return unit.getResource() == null ? null : JDTUtils.getFileURI(unit.getResource());
+    }
+
+    private static Map<String, List<TestItem>> discover(ICompilationUnit unit, Set<ICompilationUnit> dependencies,
+            IProgressMonitor monitor) throws JavaModelException {
+        final CompilationUnit root = (CompilationUnit) TestSearchUtils.parseToAst(unit, true /* fromCache */,
+                monitor);
+        if (root == null) {
+            return null;
+        }
+
+        final Map<String, List<TestItem>> result = new HashMap<>();
+        for (final Object type : root.types()) {
+            if (!(type instanceof TypeDeclaration)) {
+                continue;
+            }
+            final ITypeBinding binding = ((TypeDeclaration) type).resolveBinding();
+            if (binding == null) {
+                continue;
+            }
+            final List<TestItem> testItems = new LinkedList<>();
+            TestFrameworkUtils.findTestItemsInTypeBinding(binding, testItems, null /* parentClassItem */, monitor);
+            result.put(binding.getQualifiedName(), Collections.unmodifiableList(testItems));
+            collectDependencies(binding, dependencies, new HashSet<>());
+        }
+
+        // the result might be incomplete
+        if (monitor.isCanceled()) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Collect the units which declare the source types used by the tests of the type: its super types, the
+     * annotation types of the type and its methods, and the meta-annotations of them. The binary types are skipped
+     * since they don't change with the sources.
+     */
+    private static void collectDependencies(ITypeBinding binding, Set<ICompilationUnit> dependencies,
+            Set<String> visited) {
+        if (binding == null || !visited.add(binding.getKey())) {
+            return;
+        }
+        final IJavaElement element = binding.getJavaElement();
+        if (!(element instanceof IType) || ((IType) element).isBinary()) {
+            return;
+        }
+        final ICompilationUnit unit = ((IType) element).getCompilationUnit();
+        if (unit != null) {
+            dependencies.add(unit.getPrimary());
+        }
+
+        collectDependencies(binding.getSuperclass(), dependencies, visited);
+        for (final ITypeBinding superInterface : binding.getInterfaces()) {
+            collectDependencies(superInterface, dependencies, visited);
+        }
+        for (final IAnnotationBinding annotation : binding.getAnnotations()) {
+            collectDependencies(annotation.getAnnotationType(), dependencies, visited);
+        }
+        for (final IMethodBinding method : binding.getDeclaredMethods()) {
+            for (final IAnnotationBinding annotation : method.getAnnotations()) {
+                collectDependencies(annotation.getAnnotationType(), dependencies, visited);
+            }
+        }
+        for (final ITypeBinding memberType : binding.getDeclaredTypes()) {
+            collectDependencies(memberType, dependencies, visited);
+        }
+    }
+}
@@ -36,6 +36,11 @@ public class TestItemUtils {
 
     public static TestItem constructTestItem(IJavaElement element, TestLevel level, TestKind kind)
             throws JavaModelException {
+        return constructTestItem(element, level, kind, true /* resolveRange */);
+    }
+
+    public static TestItem constructTestItem(IJavaElement element, TestLevel level, TestKind kind,
+            boolean resolveRange) throws JavaModelException {
         final String displayName;
         final String fullName;
         if (element instanceof IPackageFragment && ((IPackageFragment) element).isDefaultPackage()) {
@@ -46,7 +51,7 @@ public class TestItemUtils {
             fullName = parseTestItemFullName(element, level);
         }
         final String uri = JDTUtils.getFileURI(element.getResource());
-        final Range range = parseTestItemRange(element);
+        final Range range = resolveRange ? parseTestItemRange(element) : new Range();
         final String projectName = element.getJavaProject().getProject().getName();
 
         return new TestItem(displayName, fullName, uri, projectName, range, level, kind);
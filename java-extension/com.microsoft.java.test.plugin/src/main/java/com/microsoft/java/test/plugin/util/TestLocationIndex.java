@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.plugin.util;
+
+import com.microsoft.java.test.plugin.model.TestItem;
+import com.microsoft.java.test.plugin.model.TestLevel;
+
+import org.eclipse.lsp4j.Location;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Maps the full names of the discovered test classes and methods to their locations. It's populated by
+ * {@link TestItemCache} when the test items of a compilation unit are discovered, and the entries of a
+ * compilation unit are dropped when the unit is invalidated.
+ */
+public final class TestLocationIndex {
+
+    private static final Map<String, List<TestItem>> itemsByName = new HashMap<>();
+    private static final Map<String, Collection<TestItem>> itemsByUri = new HashMap<>();
+
+    private TestLocationIndex() {}
+
+    public static synchronized void add(String uri, Collection<TestItem> items) {
+        if (uri == null) {
+            return;
+        }
+        remove(uri);
+        for (final TestItem item : items) {
+            itemsByName.computeIfAbsent(normalize(item.getFullName()), k -> new ArrayList<>()).add(item);
+        }
+        itemsByUri.put(uri, items);
+    }
+
+    public static synchronized void removeProject(String projectName) {
+        final List<String> uris = new ArrayList<>();
+        for (final Entry<String, Collection<TestItem>> entry : itemsByUri.entrySet()) {
+            if (entry.getValue().stream().anyMatch(item -> projectName.equals(item.getProject()))) {
+                uris.add(entry.getKey());
+            }
+        }
+        uris.forEach(TestLocationIndex::remove);
+    }
+
+    /**
+     * Remove the entries of the files in a folder.
+     */
+    public static synchronized void removeUnder(String folderUri) {
+        if (folderUri == null) {
+            return;
+        }
+        final String prefix = folderUri.endsWith("/") ? folderUri : folderUri + "/";
+        final List<String> uris = new ArrayList<>();
+        for (final String uri : itemsByUri.keySet()) {
+            if (uri.startsWith(prefix)) {
+                uris.add(uri);
+            }
+        }
+        uris.forEach(TestLocationIndex::remove);
+    }
+
+    public static synchronized void remove(String uri) {
+        if (uri == null) {
+            return;
+        }
+        final Collection<TestItem> items = itemsByUri.remove(uri);
+        if (items == null) {
+            return;
+        }
+        for (final TestItem item : items) {
+            final String name = normalize(item.getFullName());
+            final List<TestItem> indexedItems = itemsByName.get(name);
+            if (indexedItems != null) {
+                indexedItems.remove(item);
+                if (indexedItems.isEmpty()) {
+                    itemsByName.remove(name);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the locations of the classes or methods with the given name.
+     *
+     * @param name the full name of the class or method, the separators '$' and '#' are treated as '.'
+     * @param level {@link TestLevel#CLASS} or {@link TestLevel#METHOD}
+     * @return the locations, an empty list if the name is not indexed
+     */
+    public static synchronized List<Location> find(String name, TestLevel level) {
+        final List<Location> result = new ArrayList<>();
+        final List<TestItem> items = itemsByName.get(normalize(name));
+        if (items != null) {
+            for (final TestItem item : items) {
+                if (item.getLevel() == level) {
+                    result.add(item.getLocation());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String normalize(String name) {
+        return name.replace('$', '.').replace('#', '.');
+    }
+}
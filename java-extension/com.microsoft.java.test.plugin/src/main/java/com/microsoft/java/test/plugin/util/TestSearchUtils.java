@@ -12,12 +12,14 @@
 package com.microsoft.java.test.plugin.util;
 
 import com.google.gson.Gson;
+import com.microsoft.java.test.plugin.launchers.LaunchArgumentsPreresolver;
 import com.microsoft.java.test.plugin.model.SearchTestItemParams;
 import com.microsoft.java.test.plugin.model.TestItem;
 import com.microsoft.java.test.plugin.model.TestLevel;
 import com.microsoft.java.test.plugin.searcher.TestFrameworkSearcher;
 
 import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
@@ -37,8 +39,6 @@ import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.eclipse.jdt.core.dom.ITypeBinding;
-import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.manipulation.CoreASTProvider;
 import org.eclipse.jdt.core.search.IJavaSearchConstants;
 import org.eclipse.jdt.core.search.IJavaSearchScope;
@@ -53,12 +53,15 @@ import org.eclipse.jdt.ls.core.internal.handlers.DocumentLifeCycleHandler;
 import org.eclipse.jdt.ls.core.internal.managers.ProjectsManager;
 import org.eclipse.lsp4j.Location;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -69,6 +72,23 @@ import java.util.stream.Stream;
 @SuppressWarnings("restriction")
 public class TestSearchUtils {
 
+    private static final String[] TEST_TYPE_NAME_PATTERNS = new String[] { "*Test", "*Tests", "TestCase", "RunWith",
+        "Testable", "TestFactory", "TestTemplate", "Nested", "Suite" };
+
+    private static final int MAX_PACKAGE_SNAPSHOTS = 16;
+
+    // the types of the packages whose children are being paged in the Test Explorer
+    private static final Map<String, PackageSnapshot> packageSnapshots = Collections.synchronizedMap(
+            new LinkedHashMap<String, PackageSnapshot>(16, 0.75f, true /* accessOrder */) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PackageSnapshot> eldest) {
+                    // the expansions which are not paged to the end
+                    return size() > MAX_PACKAGE_SNAPSHOTS;
+                }
+            });
+
     /**
      * Method to search the Code Lenses
      *
@@ -96,22 +116,12 @@ public class TestSearchUtils {
             return resultList;
         }
 
-        final CompilationUnit root = (CompilationUnit) parseToAst(unit, true /* fromCache */, monitor);
-        if (root == null) {
-            return resultList;
+        final List<TestItem> testItems = TestItemCache.getTestItems(unit, primaryType.getFullyQualifiedName(),
+                monitor);
+        if (testItems != null) {
+            resultList.addAll(testItems);
         }
-
-        final ASTNode node = root.findDeclaringNode(primaryType.getKey());
-        if (!(node instanceof TypeDeclaration)) {
-            return resultList;
-        }
-
-        final ITypeBinding binding = ((TypeDeclaration) node).resolveBinding();
-        if (binding == null) {
-            return resultList;
-        }
-
-        TestFrameworkUtils.findTestItemsInTypeBinding(binding, resultList, null /* parentClassItem */, monitor);
+        LaunchArgumentsPreresolver.schedule(unit, resultList);
 
         return resultList;
     }
@@ -163,7 +173,7 @@ public class TestSearchUtils {
                 searchInFolder(resultList, params);
                 break;
             case PACKAGE:
-                searchInPackage(resultList, params);
+                searchInPackage(resultList, params, monitor);
                 break;
             case CLASS:
                 searchInClass(resultList, params, monitor);
@@ -255,17 +265,60 @@ public class TestSearchUtils {
 
     }
 
+    /**
+     * Method to search the tests from the compiled class files, for the tests packaged in jars or generated
+     * at build time, which have no source in the workspace.
+     *
+     * @param arguments the project name and the paths of the output folders or the jars to scan, the output
+     *                  folders of the test source roots are scanned when no path is given
+     * @param monitor
+     * @throws JavaModelException
+     * @throws IOException
+     */
+    public static List<TestItem> searchTestItemsInClassFiles(List<Object> arguments, IProgressMonitor monitor)
+            throws JavaModelException, IOException {
+        if (arguments == null || arguments.size() == 0) {
+            return Collections.emptyList();
+        }
+
+        final Gson gson = new Gson();
+        final ClassFileSearchArgument args = gson.fromJson((String) arguments.get(0), ClassFileSearchArgument.class);
+        final IJavaProject javaProject = ProjectUtils.getJavaProject(args.project);
+        if (javaProject == null || !javaProject.exists()) {
+            return Collections.emptyList();
+        }
+
+        final List<File> files = new ArrayList<>();
+        if (args.paths == null || args.paths.isEmpty()) {
+            files.addAll(ProjectTestUtils.getTestOutputLocations(javaProject));
+        } else {
+            for (final String path : args.paths) {
+                files.add(new File(path));
+            }
+        }
+        return ClassFileTestScanner.scan(files, javaProject.getProject().getName(), monitor);
+    }
+
     public static List<Location> searchLocation(List<Object> arguments, IProgressMonitor monitor) throws CoreException {
         final List<Location> searchResult = new LinkedList<>();
         if (arguments == null || arguments.size() == 0) {
             throw new IllegalArgumentException("Invalid arguments to search the location.");
         }
-        String searchString = ((String) arguments.get(0)).replaceAll("[$#]", ".");
+        String searchString = (String) arguments.get(0);
         int searchFor = IJavaSearchConstants.METHOD;
         if (searchString.endsWith("<TestError>")) {
             searchString = searchString.substring(0, searchString.indexOf("<TestError>") - 1);
             searchFor = IJavaSearchConstants.CLASS;
         }
+
+        // look up the discovered test items first
+        final List<Location> indexedLocations = TestLocationIndex.find(searchString,
+                searchFor == IJavaSearchConstants.CLASS ? TestLevel.CLASS : TestLevel.METHOD);
+        if (!indexedLocations.isEmpty()) {
+            return indexedLocations;
+        }
+
+        searchString = searchString.replaceAll("[$#]", ".");
         final SearchPattern pattern = SearchPattern.createPattern(searchString, searchFor,
                 IJavaSearchConstants.DECLARATIONS, SearchPattern.R_PATTERN_MATCH);
         final IJavaProject[] projects = JavaCore.create(ResourcesPlugin.getWorkspace().getRoot())
@@ -287,19 +340,6 @@ public class TestSearchUtils {
         return searchResult;
     }
 
-    private static boolean isInTestScope(IJavaElement element) throws JavaModelException {
-        final IJavaProject project = element.getJavaProject();
-        for (final IPath sourcePath : ProjectUtils.listSourcePaths(project)) {
-            if (!ProjectTestUtils.isTest(project, sourcePath)) {
-                continue;
-            }
-            if (sourcePath.isPrefixOf(element.getPath())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     private static IJavaElement[] getJavaElementForSearch(SearchTestItemParams params) throws JavaModelException {
         switch (params.getLevel()) {
             case ROOT:
@@ -333,26 +373,117 @@ public class TestSearchUtils {
             throws URISyntaxException, JavaModelException {
         final Set<IJavaProject> projectSet = ProjectTestUtils.parseProjects(params.getUri());
         for (final IJavaProject project : projectSet) {
-            for (final IPackageFragment packageFragment : project.getPackageFragments()) {
-                if (isInTestScope(packageFragment) && packageFragment.getCompilationUnits().length > 0) {
-                    resultList.add(TestItemUtils.constructTestItem(packageFragment, TestLevel.PACKAGE));
+            // only enumerate the packages under the test source roots
+            for (final IPath testPath : ProjectTestUtils.getTestPath(project)) {
+                final IPackageFragmentRoot packageRoot = project.findPackageFragmentRoot(testPath);
+                if (packageRoot == null || packageRoot.isArchive()) {
+                    continue;
+                }
+                for (final IJavaElement child : packageRoot.getChildren()) {
+                    if (child instanceof IPackageFragment &&
+                            ((IPackageFragment) child).getCompilationUnits().length > 0) {
+                        resultList.add(TestItemUtils.constructTestItem((IPackageFragment) child, TestLevel.PACKAGE));
+                    }
                 }
             }
         }
     }
 
-    private static void searchInPackage(List<TestItem> resultList, SearchTestItemParams params)
-            throws JavaModelException {
+    private static void searchInPackage(List<TestItem> resultList, SearchTestItemParams params,
+            IProgressMonitor monitor) throws JavaModelException {
         final IPackageFragment packageFragment = resolvePackage(params.getUri(), params.getFullName());
         if (packageFragment == null) {
             return;
         }
 
+        // The first page starts an expansion, the next pages are read from its snapshot so the classes are only
+        // searched once, and an edit between two pages can't reorder them
+        final String key = packageFragment.getHandleIdentifier();
+        PackageSnapshot snapshot = params.getOffset() > 0 ? packageSnapshots.get(key) : null;
+        if (snapshot == null || snapshot.returned != params.getOffset()) {
+            snapshot = new PackageSnapshot(listPackageTypes(packageFragment, monitor), params.getOffset());
+        }
+
+        synchronized (snapshot) {
+            while (snapshot.cursor < snapshot.types.size() &&
+                    (params.getLimit() <= 0 || resultList.size() < params.getLimit())) {
+                final IType type = snapshot.types.get(snapshot.cursor++);
+                if (!type.exists()) {
+                    // removed since the expansion started
+                    continue;
+                }
+                resultList.add(TestItemUtils.constructTestItem(type, TestLevel.CLASS, null /* kind */,
+                        !params.isOmitRange()));
+            }
+            snapshot.returned = params.getOffset() + resultList.size();
+            if (snapshot.cursor < snapshot.types.size()) {
+                packageSnapshots.put(key, snapshot);
+            } else {
+                packageSnapshots.remove(key);
+            }
+        }
+    }
+
+    /**
+     * List the top level types of the package. The units found by {@link #searchTestCandidates} come first so the
+     * first pages most likely contain the tests, the other units are kept since the search can't see the tests
+     * inherited from a base class or using a custom annotation.
+     */
+    private static List<IType> listPackageTypes(IPackageFragment packageFragment, IProgressMonitor monitor)
+            throws JavaModelException {
+        final Set<IResource> candidates = searchTestCandidates(packageFragment, monitor);
+        final List<ICompilationUnit> units = new ArrayList<>();
+        final List<ICompilationUnit> otherUnits = new ArrayList<>();
         for (final ICompilationUnit unit : packageFragment.getCompilationUnits()) {
-            for (final IType type : unit.getTypes()) {
-                resultList.add(TestItemUtils.constructTestItem(type, TestLevel.CLASS));
+            if (candidates == null || candidates.contains(unit.getResource())) {
+                units.add(unit);
+            } else {
+                otherUnits.add(unit);
             }
         }
+        units.addAll(otherUnits);
+
+        final List<IType> types = new ArrayList<>();
+        for (final ICompilationUnit unit : units) {
+            types.addAll(Arrays.asList(unit.getTypes()));
+        }
+        return types;
+    }
+
+    /**
+     * Use the index to find the compilation units in the package which reference a type that looks like
+     * a test annotation or a test base class, e.g. <code>@Test</code>, <code>@RunWith</code>,
+     * <code>TestCase</code> or a custom <code>@IntegrationTest</code>. Only the units found in the index are
+     * matched by the search engine, and the potential matches are kept as well. Returns <code>null</code> if
+     * the search fails. The result only orders the units, it misses the tests which inherit their test methods
+     * or use an annotation with another name.
+     */
+    private static Set<IResource> searchTestCandidates(IPackageFragment packageFragment, IProgressMonitor monitor) {
+        SearchPattern pattern = null;
+        for (final String name : TEST_TYPE_NAME_PATTERNS) {
+            final SearchPattern namePattern = SearchPattern.createPattern(name, IJavaSearchConstants.TYPE,
+                    IJavaSearchConstants.REFERENCES, SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE);
+            pattern = pattern == null ? namePattern : SearchPattern.createOrPattern(pattern, namePattern);
+        }
+
+        final Set<IResource> result = new HashSet<>();
+        final IJavaSearchScope scope = SearchEngine.createJavaSearchScope(new IJavaElement[] { packageFragment },
+                IJavaSearchScope.SOURCES);
+        final SearchRequestor requestor = new SearchRequestor() {
+            @Override
+            public void acceptSearchMatch(SearchMatch match) throws CoreException {
+                if (match.getResource() != null) {
+                    result.add(match.getResource());
+                }
+            }
+        };
+        try {
+            new SearchEngine().search(pattern, new SearchParticipant[] {
+                SearchEngine.getDefaultSearchParticipant() }, scope, requestor, monitor);
+        } catch (final CoreException e) {
+            return null;
+        }
+        return result;
     }
 
     private static IPackageFragment resolvePackage(String uriString, String fullName) throws JavaModelException {
@@ -378,22 +509,25 @@ public class TestSearchUtils {
     private static void searchInClass(List<TestItem> resultList, SearchTestItemParams params,
             IProgressMonitor monitor) throws JavaModelException {
         final ICompilationUnit unit = JDTUtils.resolveCompilationUnit(params.getUri());
-        final CompilationUnit root = (CompilationUnit) parseToAst(unit, false /* fromCache */, monitor);
         for (final IType type : unit.getAllTypes()) {
             if (type.getFullyQualifiedName().equals(params.getFullName())) {
-                final ASTNode node = root.findDeclaringNode(type.getKey());
-                if (!(node instanceof TypeDeclaration)) {
-                    continue;
+                // the test items of the member types are discovered together with their top level type
+                IType topLevelType = type;
+                while (topLevelType.getDeclaringType() != null) {
+                    topLevelType = topLevelType.getDeclaringType();
                 }
-
-                final ITypeBinding binding = ((TypeDeclaration) node).resolveBinding();
-                if (binding == null) {
+                final List<TestItem> testItems = TestItemCache.getTestItems(unit,
+                        topLevelType.getFullyQualifiedName(), monitor);
+                if (testItems == null) {
                     continue;
                 }
 
-                TestFrameworkUtils.findTestItemsInTypeBinding(binding, resultList, null /* parentClassItem */, monitor);
-                resultList.removeIf(item -> item.getLevel() != TestLevel.METHOD ||
-                        !item.getFullName().startsWith(params.getFullName() + "#"));
+                for (final TestItem item : testItems) {
+                    if (item.getLevel() == TestLevel.METHOD &&
+                            item.getFullName().startsWith(params.getFullName() + "#")) {
+                        resultList.add(item);
+                    }
+                }
                 for (final IType innerType : type.getTypes()) {
                     resultList.add(TestItemUtils.constructTestItem(innerType, TestLevel.CLASS));
                 }
@@ -405,4 +539,23 @@ public class TestSearchUtils {
     private static boolean isJavaElementExist(IJavaElement element) {
         return element != null && element.getResource() != null && element.getResource().exists();
     }
+
+    class ClassFileSearchArgument {
+        public String project;
+        public List<String> paths;
+    }
+
+    private static class PackageSnapshot {
+        final List<IType> types;
+        // the index of the next type to return
+        int cursor;
+        // the count of the items returned to the client
+        int returned;
+
+        PackageSnapshot(List<IType> types, int offset) {
+            this.types = types;
+            this.cursor = Math.min(offset, types.size());
+            this.returned = offset;
+        }
+    }
 }
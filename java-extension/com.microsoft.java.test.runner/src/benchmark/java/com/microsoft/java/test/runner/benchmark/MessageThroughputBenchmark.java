@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.runner.benchmark;
+
+import com.microsoft.java.test.runner.common.TestOutputStream;
+import com.microsoft.java.test.runner.common.TestRunnerMessageHelper;
+import com.microsoft.java.test.runner.common.UnixDomainSocketOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many test events per second the runner sends to a client which only drains the socket, through TCP
+ * and through a Unix domain socket, against an output stream which drops the bytes, i.e. the cost of creating and
+ * serializing the messages. Run with <code>mvn -Pbenchmark verify</code>, the Unix domain socket requires JDK 16+.
+ *
+ * The output stream of the runner is initialized once per JVM, JMH runs each transport in its own fork.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MessageThroughputBenchmark {
+
+    private static final int TEST_COUNT = 100;
+
+    @Param({ "null", "tcp", "uds" })
+    public String transport;
+
+    private OutputStream outputStream;
+    private ServerSocketChannel server;
+    private Thread sink;
+    private Path socketDirectory;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        switch (transport) {
+            case "tcp":
+                server = ServerSocketChannel.open();
+                server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+                startSink();
+                final int port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+                outputStream = new Socket(InetAddress.getLoopbackAddress(), port).getOutputStream();
+                break;
+            case "uds":
+                socketDirectory = Files.createTempDirectory("java-test-benchmark");
+                final String socketFile = socketDirectory.resolve("runner.sock").toString();
+                server = openUnixDomainServer(socketFile);
+                startSink();
+                outputStream = UnixDomainSocketOutputStream.connect(socketFile);
+                if (outputStream == null) {
+                    throw new IllegalStateException("Failed to connect to the Unix domain socket: " + socketFile);
+                }
+                break;
+            default:
+                outputStream = new OutputStream() {
+                    @Override
+                    public void write(int b) {
+                    }
+
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) {
+                    }
+                };
+                break;
+        }
+        TestOutputStream.instance().initialize(outputStream);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        TestOutputStream.instance().close();
+        outputStream.close();
+        if (server != null) {
+            sink.join();
+            server.close();
+        }
+        if (socketDirectory != null) {
+            Files.deleteIfExists(socketDirectory.resolve("runner.sock"));
+            Files.deleteIfExists(socketDirectory);
+        }
+    }
+
+    @Benchmark
+    public void testFinished() {
+        index = (index + 1) % TEST_COUNT;
+        TestRunnerMessageHelper.testFinished("com.example.SomeTest#method" + index, 42L);
+    }
+
+    /**
+     * Accept the connection of the runner and drop everything it sends, until it closes the connection.
+     */
+    private void startSink() {
+        sink = new Thread(() -> {
+            try (SocketChannel channel = server.accept()) {
+                final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+                while (channel.read(buffer) >= 0) {
+                    buffer.clear();
+                }
+            } catch (final IOException e) {
+                // the connection is closed
+            }
+        }, "Benchmark Sink");
+        sink.setDaemon(true);
+        sink.start();
+    }
+
+    /**
+     * Unix domain socket channels are available since JDK 16, they are created reflectively like the runner does.
+     */
+    private static ServerSocketChannel openUnixDomainServer(String path) throws Exception {
+        final ProtocolFamily unix;
+        try {
+            unix = StandardProtocolFamily.valueOf("UNIX");
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalStateException("Unix domain sockets require JDK 16 or later.", e);
+        }
+        final SocketAddress address = (SocketAddress) Class.forName("java.net.UnixDomainSocketAddress")
+                .getMethod("of", String.class).invoke(null, path);
+        final ServerSocketChannel channel = (ServerSocketChannel) ServerSocketChannel.class
+                .getMethod("open", ProtocolFamily.class).invoke(null, unix);
+        channel.bind(address);
+        return channel;
+    }
+}
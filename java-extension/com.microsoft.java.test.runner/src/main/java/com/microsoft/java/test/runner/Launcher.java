@@ -14,24 +14,46 @@ package com.microsoft.java.test.runner;
 import com.microsoft.java.test.runner.common.ITestLauncher;
 import com.microsoft.java.test.runner.common.TestMessageItem;
 import com.microsoft.java.test.runner.common.TestOutputStream;
+import com.microsoft.java.test.runner.common.TestRunnerMessageHelper;
+import com.microsoft.java.test.runner.common.TestWatchdog;
+import com.microsoft.java.test.runner.common.UnixDomainSocketOutputStream;
 import com.microsoft.java.test.runner.exceptions.ParameterException;
+import com.microsoft.java.test.runner.junit5.JUnitPlatformLauncher;
 import com.microsoft.java.test.runner.testng.TestNGLauncher;
 
+import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 public class Launcher {
     private static final String TESTNG = "testng";
+    private static final String JUNIT5 = "junit5";
     private static final String LOCAL_HOST = "127.0.0.1";
+    private static final String DISCOVER = "--discover";
+    private static final String SELECTORS_FILE = "--selectors-file";
+    private static final String JOURNAL = "--journal";
+    private static final String UNIX_SOCKET = "--unix-socket";
+    private static final String SESSION = "--session";
+    private static final List<String> RUNNER_OPTIONS = Arrays.asList(UNIX_SOCKET, JOURNAL, SESSION);
+    private static final String ARGUMENTS_FILE_PREFIX = "@";
+    private static final String GZIP_SUFFIX = ".gz";
 
     private static final Map<String, ITestLauncher> launcherMap;
 
     static {
         launcherMap = new HashMap<>();
         launcherMap.put(TESTNG, new TestNGLauncher());
+        launcherMap.put(JUNIT5, new JUnitPlatformLauncher());
     }
 
     private static final int EXIT_WITH_INVALID_INPUT_CODE = -1;
@@ -46,15 +68,38 @@ public class Launcher {
             }
 
             final int portNumber = Integer.parseInt(args[0]);
-            clientSocket = new Socket(LOCAL_HOST, portNumber);
-            TestOutputStream.instance().initialize(clientSocket.getOutputStream());
+            // The options between the runner type and the selectors
+            final Map<String, String> options = new HashMap<>();
+            int index = 2;
+            while (index + 1 < args.length && RUNNER_OPTIONS.contains(args[index])) {
+                options.put(args[index], args[index + 1]);
+                index += 2;
+            }
+            TestRunnerMessageHelper.setDefaultSessionId(options.get(SESSION));
+
+            // The Unix domain socket is used if supported by the JVM, otherwise fall back to TCP
+            final UnixDomainSocketOutputStream unixSocketStream = options.containsKey(UNIX_SOCKET) ?
+                    UnixDomainSocketOutputStream.connect(options.get(UNIX_SOCKET)) : null;
+            if (unixSocketStream != null) {
+                TestOutputStream.instance().initialize(unixSocketStream);
+            } else {
+                clientSocket = new Socket(LOCAL_HOST, portNumber);
+                TestOutputStream.instance().initialize(clientSocket.getOutputStream());
+            }
+            if (options.containsKey(JOURNAL)) {
+                TestOutputStream.instance().openJournal(options.get(JOURNAL));
+            }
+            TestWatchdog.start();
             final ITestLauncher launcher = launcherMap.get(args[1]);
             if (launcher == null) {
                 throw new ParameterException("Unsupported runner type: " + args[1] + ".");
             }
 
-            final String[] params = Arrays.copyOfRange(args, 2, args.length);
-            launcher.execute(params);
+            if (args.length > index && DISCOVER.equals(args[index])) {
+                launcher.discover(expandSelectors(Arrays.copyOfRange(args, index + 1, args.length)));
+            } else {
+                launcher.execute(expandSelectors(Arrays.copyOfRange(args, index, args.length)));
+            }
         } catch (final ParameterException e) {
             exitStatus = EXIT_WITH_INVALID_INPUT_CODE;
             TestOutputStream.instance().println(new TestMessageItem("Invalid Parameter.", e));
@@ -62,6 +107,7 @@ public class Launcher {
             exitStatus = EXIT_WITH_UNKNOWN_EXCEPTION;
             TestOutputStream.instance().println(new TestMessageItem("Exception happens in the Test Runner.", e));
         } finally {
+            TestWatchdog.stop();
             TestOutputStream.instance().close();
             try {
                 if (clientSocket != null) {
@@ -73,4 +119,39 @@ public class Launcher {
             System.exit(exitStatus);
         }
     }
+
+    /**
+     * Expand the selectors stored in files, which are passed as <code>@path</code> or
+     * <code>--selectors-file path</code>. The files contain one selector per line and can be gzipped.
+     */
+    private static String[] expandSelectors(String[] params) throws IOException {
+        final List<String> selectors = new ArrayList<>(params.length);
+        for (int i = 0; i < params.length; i++) {
+            if (SELECTORS_FILE.equals(params[i])) {
+                if (i + 1 >= params.length) {
+                    throw new ParameterException("No file specified for " + SELECTORS_FILE + ".");
+                }
+                readSelectors(params[++i], selectors);
+            } else if (params[i].startsWith(ARGUMENTS_FILE_PREFIX)) {
+                readSelectors(params[i].substring(ARGUMENTS_FILE_PREFIX.length()), selectors);
+            } else {
+                selectors.add(params[i]);
+            }
+        }
+        return selectors.toArray(new String[selectors.size()]);
+    }
+
+    private static void readSelectors(String path, List<String> selectors) throws IOException {
+        try (InputStream fileStream = new FileInputStream(path);
+                InputStream in = path.endsWith(GZIP_SUFFIX) ? new GZIPInputStream(fileStream) : fileStream;
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    selectors.add(line);
+                }
+            }
+        }
+    }
 }
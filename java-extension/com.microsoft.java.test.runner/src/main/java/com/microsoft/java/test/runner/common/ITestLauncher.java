@@ -13,4 +13,10 @@ package com.microsoft.java.test.runner.common;
 
 public interface ITestLauncher {
     void execute(String[] args);
+
+    /**
+     * List the tests matched by the arguments without executing them. The result is reported as
+     * <code>suiteTreeStarted</code>, <code>suiteTreeNode</code> and <code>suiteTreeEnded</code> events.
+     */
+    void discover(String[] args);
 }
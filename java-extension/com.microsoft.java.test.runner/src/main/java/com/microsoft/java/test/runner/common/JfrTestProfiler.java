@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.runner.common;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The JFR part of {@link TestProfiler}.
+ *
+ * The recording started by <code>-XX:StartFlightRecording</code> is used if there is one, otherwise a recording
+ * with the <code>profile</code> settings is started at the first test. To report the profiles, a copy of the
+ * recording is dumped, and the execution samples and the allocation samples are attributed to the test which was
+ * running on the same thread at the time.
+ */
+final class JfrTestProfiler {
+    private static final String TEST_EVENT = "com.microsoft.java.test.Test";
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    // JDK 16+
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final String ALLOCATION_IN_NEW_TLAB = "jdk.ObjectAllocationInNewTLAB";
+    private static final String ALLOCATION_OUTSIDE_TLAB = "jdk.ObjectAllocationOutsideTLAB";
+    private static final int MAX_ENTRIES = 5;
+
+    private static final Map<Object, TestEvent> runningTests = new ConcurrentHashMap<>();
+    private static Recording recording;
+    private static Instant lastReport = Instant.MIN;
+
+    private JfrTestProfiler() {}
+
+    static boolean isAvailable() {
+        return FlightRecorder.isAvailable();
+    }
+
+    static void testStarted(Object key, String name) {
+        ensureRecording();
+        final TestEvent event = new TestEvent();
+        event.name = name;
+        event.begin();
+        runningTests.put(key, event);
+    }
+
+    static void testFinished(Object key, String status) {
+        final TestEvent event = runningTests.remove(key);
+        if (event == null) {
+            return;
+        }
+        event.end();
+        event.status = status;
+        event.commit();
+    }
+
+    static synchronized void reportProfiles() throws IOException {
+        final Recording running = findRunningRecording();
+        if (running == null) {
+            return;
+        }
+        final Path file = Files.createTempFile("test-profile", ".jfr");
+        try {
+            try (Recording copy = running.copy(true)) {
+                copy.dump(file);
+            }
+            final Map<Long, TreeMap<Instant, TestProfile>> profiles = readTests(file);
+            readSamples(file, profiles);
+            for (final TreeMap<Instant, TestProfile> threadProfiles : profiles.values()) {
+                for (final TestProfile profile : threadProfiles.values()) {
+                    TestRunnerMessageHelper.testProfile(profile.name, getTop(profile.hotMethods, " samples"),
+                            getTop(profile.allocationSites, " bytes"));
+                    if (profile.end.isAfter(lastReport)) {
+                        lastReport = profile.end;
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static synchronized void ensureRecording() {
+        if (recording != null || findRunningRecording() != null) {
+            return;
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName("Java Tests");
+            recording.start();
+        } catch (final Exception e) {
+            TestOutputStream.instance().println(new TestMessageItem("Failed to start the flight recording.", e));
+        }
+    }
+
+    private static Recording findRunningRecording() {
+        for (final Recording candidate : FlightRecorder.getFlightRecorder().getRecordings()) {
+            if (candidate.getState() == RecordingState.RUNNING) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read the test events finished since the last report, grouped by the thread and sorted by the start time.
+     */
+    private static Map<Long, TreeMap<Instant, TestProfile>> readTests(Path file) throws IOException {
+        final Map<Long, TreeMap<Instant, TestProfile>> profiles = new HashMap<>();
+        try (RecordingFile recordingFile = new RecordingFile(file)) {
+            while (recordingFile.hasMoreEvents()) {
+                final RecordedEvent event = recordingFile.readEvent();
+                if (!TEST_EVENT.equals(event.getEventType().getName()) || !event.getEndTime().isAfter(lastReport)) {
+                    continue;
+                }
+                final RecordedThread thread = event.getThread();
+                if (thread == null) {
+                    continue;
+                }
+                final TestProfile profile = new TestProfile(event.getString("name"), event.getStartTime(),
+                        event.getEndTime());
+                profiles.computeIfAbsent(thread.getJavaThreadId(), id -> new TreeMap<>())
+                        .put(profile.start, profile);
+            }
+        }
+        return profiles;
+    }
+
+    private static void readSamples(Path file, Map<Long, TreeMap<Instant, TestProfile>> profiles) throws IOException {
+        try (RecordingFile recordingFile = new RecordingFile(file)) {
+            while (recordingFile.hasMoreEvents()) {
+                final RecordedEvent event = recordingFile.readEvent();
+                switch (event.getEventType().getName()) {
+                    case EXECUTION_SAMPLE: {
+                        final TestProfile profile = findTest(profiles, event.getThread("sampledThread"),
+                                event.getStartTime());
+                        final String frame = getTopFrame(event.getStackTrace());
+                        if (profile != null && frame != null) {
+                            profile.hotMethods.merge(frame, 1L, Long::sum);
+                        }
+                        break;
+                    }
+                    case ALLOCATION_SAMPLE:
+                        addAllocation(profiles, event, event.getLong("weight"));
+                        break;
+                    case ALLOCATION_IN_NEW_TLAB:
+                        addAllocation(profiles, event, event.getLong("tlabSize"));
+                        break;
+                    case ALLOCATION_OUTSIDE_TLAB:
+                        addAllocation(profiles, event, event.getLong("allocationSize"));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    private static void addAllocation(Map<Long, TreeMap<Instant, TestProfile>> profiles, RecordedEvent event,
+            long size) {
+        final TestProfile profile = findTest(profiles, event.getThread(), event.getStartTime());
+        final String frame = getTopFrame(event.getStackTrace());
+        if (profile == null || frame == null) {
+            return;
+        }
+        final String objectClass = event.getClass("objectClass") == null ? "?" :
+                event.getClass("objectClass").getName();
+        profile.allocationSites.merge(objectClass + " at " + frame, size, Long::sum);
+    }
+
+    private static TestProfile findTest(Map<Long, TreeMap<Instant, TestProfile>> profiles, RecordedThread thread,
+            Instant time) {
+        if (thread == null) {
+            return null;
+        }
+        final TreeMap<Instant, TestProfile> threadProfiles = profiles.get(thread.getJavaThreadId());
+        if (threadProfiles == null) {
+            return null;
+        }
+        final Entry<Instant, TestProfile> entry = threadProfiles.floorEntry(time);
+        if (entry == null || entry.getValue().end.isBefore(time)) {
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    private static String getTopFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        for (final RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame()) {
+                return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" +
+                        frame.getLineNumber();
+            }
+        }
+        return null;
+    }
+
+    private static String getTop(Map<String, Long> counts, String unit) {
+        final List<Entry<String, Long>> entries = new ArrayList<>(counts.entrySet());
+        Collections.sort(entries, (a, b) -> Long.compare(b.getValue(), a.getValue()));
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < entries.size() && i < MAX_ENTRIES; i++) {
+            builder.append(entries.get(i).getKey()).append(" (").append(entries.get(i).getValue()).append(unit)
+                    .append(")\n");
+        }
+        return builder.toString();
+    }
+
+    private static class TestProfile {
+        final String name;
+        final Instant start;
+        final Instant end;
+        final Map<String, Long> hotMethods = new HashMap<>();
+        final Map<String, Long> allocationSites = new HashMap<>();
+
+        TestProfile(String name, Instant start, Instant end) {
+            this.name = name;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    @Name(TEST_EVENT)
+    @Label("Test")
+    @Category("Java Test Runner")
+    @Description("The execution of a test method")
+    static class TestEvent extends Event {
+        @Label("Test Name")
+        String name;
+
+        @Label("Status")
+        String status;
+    }
+}
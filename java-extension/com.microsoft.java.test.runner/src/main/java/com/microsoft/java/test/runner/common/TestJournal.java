@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.runner.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A memory-mapped journal of the messages sent to the client. The pages of the mapping are kept by the OS when
+ * the JVM dies, so the client can recover the results of a run killed by an OOM, a <code>System.exit</code> in
+ * a test or a native crash.
+ *
+ * The file starts with a header of {@link #HEADER_SIZE} bytes: the magic number, the version, the record size,
+ * the count of the committed records and the flags. A message is stored as its length (int) followed by its UTF-8
+ * bytes, padded to a whole number of records. The count of the committed records is updated after the message is
+ * written, so a reader never sees a partial message. The format is read by
+ * <code>com.microsoft.java.test.plugin.launchers.TestJournalUtils</code>.
+ */
+public class TestJournal implements Closeable {
+    static final int MAGIC = 0x4A544A31; // "JTJ1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 256;
+    static final int FLAG_CLOSED = 1;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int RECORD_SIZE_OFFSET = 8;
+    private static final int RECORD_COUNT_OFFSET = 12;
+    private static final int FLAGS_OFFSET = 16;
+    private static final int INITIAL_CAPACITY = 1024 * 1024;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int recordCount;
+
+    public TestJournal(String path) throws IOException {
+        file = new RandomAccessFile(path, "rw");
+        file.setLength(0);
+        channel = file.getChannel();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_CAPACITY);
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(RECORD_SIZE_OFFSET, RECORD_SIZE);
+        buffer.putInt(RECORD_COUNT_OFFSET, 0);
+        buffer.putInt(FLAGS_OFFSET, 0);
+    }
+
+    public synchronized void append(String message) throws IOException {
+        final byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        final int records = (Integer.BYTES + bytes.length + RECORD_SIZE - 1) / RECORD_SIZE;
+        final long offset = HEADER_SIZE + (long) recordCount * RECORD_SIZE;
+        ensureCapacity(offset + (long) records * RECORD_SIZE);
+
+        buffer.putInt((int) offset, bytes.length);
+        buffer.position((int) offset + Integer.BYTES);
+        buffer.put(bytes);
+        recordCount += records;
+        // commit the message
+        buffer.putInt(RECORD_COUNT_OFFSET, recordCount);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.putInt(FLAGS_OFFSET, FLAG_CLOSED);
+        buffer.force();
+        channel.close();
+        file.close();
+    }
+
+    private void ensureCapacity(long size) throws IOException {
+        if (size <= buffer.capacity()) {
+            return;
+        }
+        long capacity = buffer.capacity();
+        while (capacity < size) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("The test journal is too large.");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+}
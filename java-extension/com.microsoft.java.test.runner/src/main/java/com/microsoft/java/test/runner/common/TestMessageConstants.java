@@ -22,6 +22,10 @@ public class TestMessageConstants {
     public static final String TEST_IGNORED = "testIgnored";
     public static final String TEST_FINISHED = "testFinished";
     public static final String DURATION = "duration";
+    public static final String CPU_TIME = "cpuTime";
+    public static final String ALLOCATED_BYTES = "allocatedBytes";
+    public static final String GC_COUNT = "gcCount";
+    public static final String GC_TIME = "gcTime";
     public static final String SUITE_TREE_NODE = "suiteTreeNode";
     public static final String TEST_SUITE_FINISHED = "testSuiteFinished";
     public static final String TEST_SUITE_STARTED = "testSuiteStarted";
@@ -31,6 +35,11 @@ public class TestMessageConstants {
     public static final String TRACE = "trace";
     public static final String STATUS = "status";
     public static final String TEST_FAILED = "testFailed";
+    public static final String TEST_PROFILE = "testProfile";
+    public static final String HOT_METHODS = "hotMethods";
+    public static final String ALLOCATION_SITES = "allocationSites";
     public static final String TEST_RESULT_SUMMARY = "testSummary";
+    public static final String RUNNER_CLOSED = "runnerClosed";
+    public static final String MESSAGE_COUNT = "messageCount";
     public static final String TEST_RUNNER_ERROR = "error";
 }
@@ -23,6 +23,9 @@ public class TestMessageItem {
 
     TestMessageType type;
 
+    // the session of the run, see TestRunnerMessageHelper#getSessionId()
+    String session;
+
     public TestMessageItem(TestMessageType type, String name, List<Pair> attributes) {
         this.type = type;
         this.name = name;
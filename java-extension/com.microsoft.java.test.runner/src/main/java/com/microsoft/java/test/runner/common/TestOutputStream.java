@@ -18,19 +18,28 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.lang.reflect.Type;
 
 public class TestOutputStream implements TestStream {
 
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
     private PrintWriter out;
+    private TestJournal journal;
+    // the messages sent since the stream was initialized
+    private int messageCount;
 
     private static final JsonSerializer<TestMessageItem> serializer = new JsonSerializer<TestMessageItem>() {
         @Override
         public JsonElement serialize(TestMessageItem item, Type typeOfSrc, JsonSerializationContext context) {
             final JsonObject jsonMsgItem = new JsonObject();
             jsonMsgItem.addProperty("name", item.name);
+            if (item.session != null) {
+                jsonMsgItem.addProperty("session", item.session);
+            }
             if (item.attributes != null) {
                 final JsonObject jsonAttributes = new JsonObject();
                 for (final Pair pair : item.attributes) {
@@ -42,6 +51,10 @@ public class TestOutputStream implements TestStream {
         }
     };
 
+    // Gson is thread-safe, creating it for each message costs more than sending the message
+    private static final Gson customGson = new GsonBuilder()
+            .registerTypeAdapter(TestMessageItem.class, serializer).create();
+
     private TestOutputStream() { }
 
     public void initialize(OutputStream outputStream) {
@@ -50,6 +63,15 @@ public class TestOutputStream implements TestStream {
         }
     }
 
+    /**
+     * Also write the messages into a journal, which survives a crash of the JVM.
+     */
+    public synchronized void openJournal(String path) throws IOException {
+        if (journal == null) {
+            journal = new TestJournal(path);
+        }
+    }
+
     private static class SingletonHelper {
         private static final TestOutputStream INSTANCE = new TestOutputStream();
     }
@@ -59,22 +81,44 @@ public class TestOutputStream implements TestStream {
     }
 
     @Override
-    public void println(TestMessageItem item) {
+    public synchronized void println(TestMessageItem item) {
+        if (item.session == null) {
+            item.session = TestRunnerMessageHelper.getSessionId();
+        }
         final String content = toJson(item);
-        out.println(content);
-        out.println();
+        if (journal != null) {
+            try {
+                journal.append(content);
+            } catch (final IOException e) {
+                // keep the socket delivery going without the journal
+                journal = null;
+            }
+        }
+        // one flush per message, the message is followed by an empty line
+        out.print(content);
+        out.print(LINE_SEPARATOR);
+        out.print(LINE_SEPARATOR);
+        out.flush();
+        messageCount++;
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
+        if (journal != null) {
+            // tell the client how many messages were sent, it only reads the journal if some are missing
+            println(MessageUtils.create(TestMessageConstants.RUNNER_CLOSED,
+                    new Pair(TestMessageConstants.MESSAGE_COUNT, String.valueOf(messageCount))));
+            try {
+                journal.close();
+            } catch (final IOException e) {
+                // Do nothing
+            }
+            journal = null;
+        }
         out.close();
     }
 
     private static String toJson(TestMessageItem item) {
-        final GsonBuilder gsonBuilder = new GsonBuilder();
-        gsonBuilder.registerTypeAdapter(TestMessageItem.class, serializer);
-        final Gson customGson = gsonBuilder.create();
-
         final StringBuilder builder = new StringBuilder("@@<TestRunner-");
         builder.append(customGson.toJson(item));
         builder.append("-TestRunner>");
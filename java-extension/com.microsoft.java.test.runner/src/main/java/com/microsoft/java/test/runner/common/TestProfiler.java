@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.runner.common;
+
+/**
+ * Marks the boundaries of the tests in the Java Flight Recorder recording, and reports the hot methods
+ * and the allocation sites of each test at the end of the run. The profiling is opt-in through the system
+ * property <code>-Dcom.microsoft.java.test.runner.profile=true</code>.
+ *
+ * The JFR API is only touched through {@link JfrTestProfiler}, so the runner still works on the JVMs
+ * without Flight Recorder.
+ */
+public class TestProfiler {
+    public static final String ENABLED_PROPERTY = "com.microsoft.java.test.runner.profile";
+
+    public static final String STATUS_PASSED = "passed";
+    public static final String STATUS_FAILED = "failed";
+    public static final String STATUS_SKIPPED = "skipped";
+
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY) && isFlightRecorderAvailable();
+
+    private TestProfiler() {}
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Begin the JFR event of the test.
+     *
+     * @param key identifies the test execution until {@link #testFinished(Object, String)} is called
+     */
+    public static void testStarted(Object key, String name) {
+        if (ENABLED) {
+            JfrTestProfiler.testStarted(key, name);
+        }
+    }
+
+    public static void testFinished(Object key, String status) {
+        if (ENABLED) {
+            JfrTestProfiler.testFinished(key, status);
+        }
+    }
+
+    /**
+     * Report the profile of the tests finished since the last report.
+     */
+    public static void reportProfiles() {
+        if (!ENABLED) {
+            return;
+        }
+        try {
+            JfrTestProfiler.reportProfiles();
+        } catch (final Exception e) {
+            TestOutputStream.instance().println(new TestMessageItem("Failed to analyze the flight recording.", e));
+        }
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder");
+            return JfrTestProfiler.isAvailable();
+        } catch (final ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.runner.common;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the CPU time and the allocated bytes of the thread running a test, and the garbage collections
+ * happened during the test. The measurement is opt-in through the system property
+ * <code>-Dcom.microsoft.java.test.runner.metrics=true</code>.
+ *
+ * The CPU time and the allocated bytes are per thread, so they stay meaningful when the tests run in parallel.
+ * The garbage collections are counted for the whole JVM.
+ */
+public class TestResourceMonitor {
+    public static final String ENABLED_PROPERTY = "com.microsoft.java.test.runner.metrics";
+
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED;
+    private static final boolean ALLOCATION_SUPPORTED;
+
+    static {
+        CPU_TIME_SUPPORTED = ENABLED && enableCpuTime();
+        ALLOCATION_SUPPORTED = ENABLED && enableAllocation();
+    }
+
+    private TestResourceMonitor() {}
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Take a snapshot of the counters for the current thread, or <code>null</code> if the monitor is disabled.
+     */
+    public static Snapshot start() {
+        if (!ENABLED) {
+            return null;
+        }
+        return new Snapshot(Thread.currentThread().getId());
+    }
+
+    /**
+     * Get the differences of the counters since the snapshot, as the attributes of a test event.
+     */
+    public static List<Pair> end(Snapshot start) {
+        final List<Pair> metrics = new ArrayList<>(4);
+        if (start == null) {
+            return metrics;
+        }
+        final Snapshot end = new Snapshot(start.threadId);
+        if (start.cpuTime >= 0 && end.cpuTime >= 0) {
+            metrics.add(new Pair(TestMessageConstants.CPU_TIME,
+                    String.valueOf((end.cpuTime - start.cpuTime) / 1_000_000L)));
+        }
+        if (start.allocatedBytes >= 0 && end.allocatedBytes >= 0) {
+            metrics.add(new Pair(TestMessageConstants.ALLOCATED_BYTES,
+                    String.valueOf(end.allocatedBytes - start.allocatedBytes)));
+        }
+        metrics.add(new Pair(TestMessageConstants.GC_COUNT, String.valueOf(end.gcCount - start.gcCount)));
+        metrics.add(new Pair(TestMessageConstants.GC_TIME, String.valueOf(end.gcTime - start.gcTime)));
+        return metrics;
+    }
+
+    private static boolean enableCpuTime() {
+        try {
+            if (!THREAD_BEAN.isThreadCpuTimeSupported()) {
+                return false;
+            }
+            if (!THREAD_BEAN.isThreadCpuTimeEnabled()) {
+                THREAD_BEAN.setThreadCpuTimeEnabled(true);
+            }
+            return true;
+        } catch (final UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    private static boolean enableAllocation() {
+        try {
+            if (!(THREAD_BEAN instanceof com.sun.management.ThreadMXBean)) {
+                return false;
+            }
+            final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+            if (!bean.isThreadAllocatedMemorySupported()) {
+                return false;
+            }
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return true;
+        } catch (final UnsupportedOperationException | SecurityException | LinkageError e) {
+            // not a HotSpot based JVM
+            return false;
+        }
+    }
+
+    public static final class Snapshot {
+        private final long threadId;
+        private final long cpuTime;
+        private final long allocatedBytes;
+        private long gcCount;
+        private long gcTime;
+
+        private Snapshot(long threadId) {
+            this.threadId = threadId;
+            this.cpuTime = CPU_TIME_SUPPORTED ? THREAD_BEAN.getThreadCpuTime(threadId) : -1L;
+            this.allocatedBytes = ALLOCATION_SUPPORTED ?
+                    ((com.sun.management.ThreadMXBean) THREAD_BEAN).getThreadAllocatedBytes(threadId) : -1L;
+            for (final GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                // -1 if undefined for the collector
+                this.gcCount += Math.max(gcBean.getCollectionCount(), 0L);
+                this.gcTime += Math.max(gcBean.getCollectionTime(), 0L);
+            }
+        }
+    }
+}
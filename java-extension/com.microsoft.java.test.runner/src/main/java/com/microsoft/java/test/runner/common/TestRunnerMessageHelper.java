@@ -17,6 +17,33 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class TestRunnerMessageHelper {
+    private static volatile String defaultSessionId;
+    private static final InheritableThreadLocal<String> sessionId = new InheritableThreadLocal<>();
+
+    /**
+     * Tag all the messages with the session, so that several runners can share the listener of the client.
+     */
+    public static void setDefaultSessionId(String id) {
+        defaultSessionId = id;
+    }
+
+    /**
+     * Tag the messages sent from the current thread, and the threads it starts, with the session. For a process
+     * running several suites at the same time. <code>null</code> falls back to the default session.
+     */
+    public static void setSessionId(String id) {
+        if (id == null) {
+            sessionId.remove();
+        } else {
+            sessionId.set(id);
+        }
+    }
+
+    public static String getSessionId() {
+        final String id = sessionId.get();
+        return id != null ? id : defaultSessionId;
+    }
+
     public static void reporterAttached() {
         TestOutputStream.instance()
                 .println(MessageUtils.create(TestMessageConstants.TEST_REPORTER_ATTACHED, (List<Pair>) null));
@@ -36,10 +63,20 @@ public class TestRunnerMessageHelper {
     }
 
     public static void testFinished(String name, long duration) {
-        TestOutputStream.instance()
-                .println(MessageUtils.create(TestMessageConstants.TEST_FINISHED,
-                        new Pair(TestMessageConstants.NAME, name),
-                        new Pair(TestMessageConstants.DURATION, String.valueOf(duration))));
+        testFinished(name, duration, null);
+    }
+
+    /**
+     * @param metrics the resource usage of the test measured by {@link TestResourceMonitor}, can be null
+     */
+    public static void testFinished(String name, long duration, List<Pair> metrics) {
+        final List<Pair> attributes = new ArrayList<>();
+        attributes.add(new Pair(TestMessageConstants.NAME, name));
+        attributes.add(new Pair(TestMessageConstants.DURATION, String.valueOf(duration)));
+        if (metrics != null) {
+            attributes.addAll(metrics);
+        }
+        TestOutputStream.instance().println(MessageUtils.create(TestMessageConstants.TEST_FINISHED, attributes));
     }
 
     public static void testSuiteFinished(String className) {
@@ -53,8 +90,8 @@ public class TestRunnerMessageHelper {
     }
 
     public static void treeNode(String className, String methodName) {
-        TestOutputStream.instance()
-                .println(MessageUtils.createWithName(TestMessageConstants.SUITE_TREE_NODE, methodName));
+        TestOutputStream.instance().println(MessageUtils.createWithName(TestMessageConstants.SUITE_TREE_NODE,
+                className + "#" + methodName));
     }
 
     public static void suiteTreeNodeStarted(String className) {
@@ -68,24 +105,52 @@ public class TestRunnerMessageHelper {
     }
 
     public static void testFailed(String name, Throwable exception, long duration) {
+        testFailed(name, exception, duration, null);
+    }
+
+    /**
+     * @param metrics the resource usage of the test measured by {@link TestResourceMonitor}, can be null
+     */
+    public static void testFailed(String name, Throwable exception, long duration, List<Pair> metrics) {
+        if (exception == null) {
+            testFailed(name, "", null, duration, metrics);
+            return;
+        }
+        final StringWriter writer = new StringWriter();
+        final PrintWriter printWriter = new PrintWriter(writer);
+        exception.printStackTrace(printWriter);
+        testFailed(name, exception.getMessage(), writer.getBuffer().toString(), duration, metrics);
+    }
+
+    /**
+     * Report a test failed without an exception, e.g. timed out, the trace can be null.
+     */
+    public static void testFailed(String name, String message, String trace, long duration) {
+        testFailed(name, message, trace, duration, null);
+    }
+
+    private static void testFailed(String name, String message, String trace, long duration, List<Pair> metrics) {
         final List<Pair> attributes = new ArrayList<>();
         attributes.add(new Pair(TestMessageConstants.NAME, name));
-        if (exception != null) {
-            final String failMessage = exception.getMessage();
-            final StringWriter writer = new StringWriter();
-            final PrintWriter printWriter = new PrintWriter(writer);
-            exception.printStackTrace(printWriter);
-            final String stackTrace = writer.getBuffer().toString();
-            attributes.add(new Pair(TestMessageConstants.MESSAGE, failMessage));
-            attributes.add(new Pair(TestMessageConstants.TRACE, stackTrace));
-        } else {
-            attributes.add(new Pair(TestMessageConstants.MESSAGE, ""));
+        attributes.add(new Pair(TestMessageConstants.MESSAGE, message));
+        if (trace != null) {
+            attributes.add(new Pair(TestMessageConstants.TRACE, trace));
         }
         attributes.add(new Pair(TestMessageConstants.DURATION, String.valueOf(duration)));
+        if (metrics != null) {
+            attributes.addAll(metrics);
+        }
 
         TestOutputStream.instance().println(MessageUtils.create(TestMessageConstants.TEST_FAILED, attributes));
     }
 
+    public static void testProfile(String name, String hotMethods, String allocationSites) {
+        TestOutputStream.instance().println(MessageUtils.create(TestMessageConstants.TEST_PROFILE,
+                new Pair(TestMessageConstants.NAME, name),
+                new Pair(TestMessageConstants.HOT_METHODS, hotMethods),
+                new Pair(TestMessageConstants.ALLOCATION_SITES, allocationSites)));
+    }
+
     public static void testRunFinished(int all, int fail, int skip) {
         final String message = String.format("Total tests run: %d, Failures: %d, Skips: %d", all, fail, skip);
         TestOutputStream.instance().println(MessageUtils.create(TestMessageConstants.TEST_RESULT_SUMMARY,
@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.runner.common;
+
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the running tests, and reports a test as failed with a thread dump when it runs longer than the
+ * timeout, so that a hanging test doesn't leave the client waiting forever. Configured through the system
+ * properties:
+ * <ul>
+ * <li><code>com.microsoft.java.test.runner.testTimeout</code>: the timeout of each test, in milliseconds</li>
+ * <li><code>com.microsoft.java.test.runner.runTimeout</code>: the timeout of the whole run, in milliseconds</li>
+ * <li><code>com.microsoft.java.test.runner.timeoutAction</code>: <code>report</code> (default),
+ * <code>interrupt</code> to interrupt the thread of the test, or <code>abort</code> to exit the runner</li>
+ * </ul>
+ */
+public class TestWatchdog {
+    public static final String TEST_TIMEOUT_PROPERTY = "com.microsoft.java.test.runner.testTimeout";
+    public static final String RUN_TIMEOUT_PROPERTY = "com.microsoft.java.test.runner.runTimeout";
+    public static final String TIMEOUT_ACTION_PROPERTY = "com.microsoft.java.test.runner.timeoutAction";
+
+    private static final String ACTION_INTERRUPT = "interrupt";
+    private static final String ACTION_ABORT = "abort";
+    private static final int EXIT_WITH_TIMEOUT = -3;
+    private static final long CHECK_INTERVAL_MILLIS = 500L;
+    private static final int MAX_FRAMES = 64;
+
+    private static final long TEST_TIMEOUT = Long.getLong(TEST_TIMEOUT_PROPERTY, 0L);
+    private static final long RUN_TIMEOUT = Long.getLong(RUN_TIMEOUT_PROPERTY, 0L);
+    private static final String TIMEOUT_ACTION = System.getProperty(TIMEOUT_ACTION_PROPERTY, "report");
+
+    private static final Map<Object, RunningTest> runningTests = new ConcurrentHashMap<>();
+    private static Thread watchdogThread;
+    private static long runStartTime;
+    private static boolean runTimedOut;
+
+    private TestWatchdog() {}
+
+    public static boolean isEnabled() {
+        return TEST_TIMEOUT > 0 || RUN_TIMEOUT > 0;
+    }
+
+    public static synchronized void start() {
+        if (!isEnabled() || watchdogThread != null) {
+            return;
+        }
+        runStartTime = System.nanoTime();
+        watchdogThread = new Thread(TestWatchdog::watch, "Test Watchdog");
+        watchdogThread.setDaemon(true);
+        watchdogThread.start();
+    }
+
+    public static synchronized void stop() {
+        if (watchdogThread != null) {
+            watchdogThread.interrupt();
+            watchdogThread = null;
+        }
+        runningTests.clear();
+    }
+
+    /**
+     * @param key identifies the test execution until {@link #testEnded(Object)} is called
+     */
+    public static void testStarted(Object key, String name) {
+        if (isEnabled()) {
+            runningTests.put(key, new RunningTest(name, Thread.currentThread()));
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the test was already reported as timed out, the listener must not report its
+     *         result again then
+     */
+    public static boolean testEnded(Object key) {
+        if (!isEnabled()) {
+            return false;
+        }
+        final RunningTest test = runningTests.remove(key);
+        if (test == null) {
+            return false;
+        }
+        synchronized (test) {
+            test.ended = true;
+            return test.reported;
+        }
+    }
+
+    private static void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(CHECK_INTERVAL_MILLIS);
+                check();
+            }
+        } catch (final InterruptedException e) {
+            // stopped
+        }
+    }
+
+    private static void check() {
+        final long now = System.nanoTime();
+        if (RUN_TIMEOUT > 0 && !runTimedOut && elapsedMillis(runStartTime, now) > RUN_TIMEOUT) {
+            runTimedOut = true;
+            final String message = String.format("The test run timed out after %d ms.", RUN_TIMEOUT);
+            final String threadDump = dumpThreads();
+            if (runningTests.isEmpty()) {
+                TestOutputStream.instance().println(new TestMessageItem(TestMessageType.Error,
+                        TestMessageConstants.TEST_RUNNER_ERROR, new Pair(TestMessageConstants.MESSAGE, message),
+                        new Pair(TestMessageConstants.TRACE, threadDump)));
+            }
+            for (final RunningTest test : runningTests.values()) {
+                if (!test.reported) {
+                    reportTimeout(test, message, threadDump, now);
+                }
+            }
+            onTimeout(null);
+            return;
+        }
+
+        if (TEST_TIMEOUT <= 0) {
+            return;
+        }
+        String threadDump = null;
+        for (final RunningTest test : runningTests.values()) {
+            if (test.reported || elapsedMillis(test.startTime, now) <= TEST_TIMEOUT) {
+                continue;
+            }
+            if (threadDump == null) {
+                // one dump for all the tests timed out at the same check
+                threadDump = dumpThreads();
+            }
+            reportTimeout(test, String.format("The test timed out after %d ms.", TEST_TIMEOUT), threadDump, now);
+            onTimeout(test);
+        }
+    }
+
+    private static void reportTimeout(RunningTest test, String message, String threadDump, long now) {
+        synchronized (test) {
+            if (test.ended) {
+                // the listener reports the result
+                return;
+            }
+            test.reported = true;
+        }
+        TestRunnerMessageHelper.testFailed(test.name, message, threadDump, elapsedMillis(test.startTime, now));
+    }
+
+    private static void onTimeout(RunningTest test) {
+        if (ACTION_ABORT.equals(TIMEOUT_ACTION)) {
+            TestOutputStream.instance().close();
+            System.exit(EXIT_WITH_TIMEOUT);
+        } else if (ACTION_INTERRUPT.equals(TIMEOUT_ACTION) && test != null) {
+            test.thread.interrupt();
+        }
+    }
+
+    private static String dumpThreads() {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        final StringBuilder builder = new StringBuilder();
+        final long[] deadlocked = threadBean.isSynchronizerUsageSupported() ?
+                threadBean.findDeadlockedThreads() : threadBean.findMonitorDeadlockedThreads();
+        if (deadlocked != null && deadlocked.length > 0) {
+            builder.append("Found ").append(deadlocked.length).append(" deadlocked threads.\n\n");
+        }
+        final ThreadInfo[] threadInfos = threadBean.dumpAllThreads(threadBean.isObjectMonitorUsageSupported(),
+                threadBean.isSynchronizerUsageSupported());
+        for (final ThreadInfo info : threadInfos) {
+            appendThreadInfo(builder, info);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Similar to {@link ThreadInfo#toString()}, which only prints the top 8 frames.
+     */
+    private static void appendThreadInfo(StringBuilder builder, ThreadInfo info) {
+        builder.append('"').append(info.getThreadName()).append("\" Id=").append(info.getThreadId())
+                .append(' ').append(info.getThreadState());
+        if (info.getLockName() != null) {
+            builder.append(" on ").append(info.getLockName());
+        }
+        if (info.getLockOwnerName() != null) {
+            builder.append(" owned by \"").append(info.getLockOwnerName()).append("\" Id=")
+                    .append(info.getLockOwnerId());
+        }
+        builder.append('\n');
+
+        final StackTraceElement[] stackTrace = info.getStackTrace();
+        final MonitorInfo[] lockedMonitors = info.getLockedMonitors();
+        for (int i = 0; i < stackTrace.length && i < MAX_FRAMES; i++) {
+            builder.append("\tat ").append(stackTrace[i]).append('\n');
+            if (i == 0 && info.getLockInfo() != null) {
+                builder.append("\t-  waiting on ").append(info.getLockInfo()).append('\n');
+            }
+            for (final MonitorInfo monitor : lockedMonitors) {
+                if (monitor.getLockedStackDepth() == i) {
+                    builder.append("\t-  locked ").append(monitor).append('\n');
+                }
+            }
+        }
+        if (stackTrace.length > MAX_FRAMES) {
+            builder.append("\t...\n");
+        }
+
+        final LockInfo[] lockedSynchronizers = info.getLockedSynchronizers();
+        if (lockedSynchronizers.length > 0) {
+            builder.append("\n\tLocked synchronizers:\n");
+            for (final LockInfo lock : lockedSynchronizers) {
+                builder.append("\t- ").append(lock).append('\n');
+            }
+        }
+        builder.append('\n');
+    }
+
+    private static long elapsedMillis(long startTime, long now) {
+        return TimeUnit.NANOSECONDS.toMillis(now - startTime);
+    }
+
+    private static class RunningTest {
+        final String name;
+        final Thread thread;
+        final long startTime = System.nanoTime();
+        volatile boolean reported;
+        boolean ended;
+
+        RunningTest(String name, Thread thread) {
+            this.name = name;
+            this.thread = thread;
+        }
+    }
+}
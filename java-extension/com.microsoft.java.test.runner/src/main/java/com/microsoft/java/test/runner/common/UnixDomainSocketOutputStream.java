@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.java.test.runner.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Writes the messages to the client through a Unix domain socket, which skips the TCP loopback stack. The channel
+ * is in the non-blocking mode, the writer only waits on a selector when the socket buffer is full.
+ *
+ * Unix domain socket channels are available since JDK 16, they are created reflectively so that the runner still
+ * works on the older JVMs, where {@link #connect(String)} returns <code>null</code> and TCP is used instead.
+ */
+public class UnixDomainSocketOutputStream extends OutputStream {
+
+    private final SocketChannel channel;
+    private final Selector selector;
+
+    private UnixDomainSocketOutputStream(SocketChannel channel) throws IOException {
+        this.channel = channel;
+        this.channel.configureBlocking(false);
+        this.selector = Selector.open();
+        this.channel.register(selector, SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * Connect to the Unix domain socket at the path, or return <code>null</code> if it's not supported or failed.
+     */
+    public static UnixDomainSocketOutputStream connect(String path) {
+        SocketChannel channel = null;
+        try {
+            final Class<?> addressClass = Class.forName("java.net.UnixDomainSocketAddress");
+            final SocketAddress address = (SocketAddress) addressClass.getMethod("of", String.class)
+                    .invoke(null, path);
+            final ProtocolFamily unix = StandardProtocolFamily.valueOf("UNIX");
+            channel = (SocketChannel) SocketChannel.class.getMethod("open", ProtocolFamily.class).invoke(null, unix);
+            channel.connect(address);
+            return new UnixDomainSocketOutputStream(channel);
+        } catch (final Exception e) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (final IOException ex) {
+                    // Do nothing
+                }
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+        while (buffer.hasRemaining()) {
+            if (channel.write(buffer) == 0) {
+                // the socket buffer is full, wait until the client reads
+                selector.select();
+                selector.selectedKeys().clear();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            selector.close();
+        } finally {
+            channel.close();
+        }
+    }
+}
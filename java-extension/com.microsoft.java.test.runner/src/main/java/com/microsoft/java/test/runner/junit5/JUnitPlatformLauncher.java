@@ -0,0 +1,102 @@
+/*******************************************************************************
+* Copyright (c) 2020 Microsoft Corporation and others.
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     Microsoft Corporation - initial API and implementation
+*******************************************************************************/
+
+package com.microsoft.java.test.runner.junit5;
+
+import com.microsoft.java.test.runner.common.ITestLauncher;
+import com.microsoft.java.test.runner.common.TestRunnerMessageHelper;
+
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+
+public class JUnitPlatformLauncher implements ITestLauncher {
+
+    @Override
+    public void execute(String[] args) {
+        if (args == null || args.length == 0) {
+            throw new RuntimeException("No test found to run.");
+        }
+
+        final Launcher launcher = LauncherFactory.create();
+        launcher.execute(createRequest(args), new JUnitPlatformListener());
+    }
+
+    @Override
+    public void discover(String[] args) {
+        if (args == null || args.length == 0) {
+            throw new RuntimeException("No test found to discover.");
+        }
+
+        final Launcher launcher = LauncherFactory.create();
+        final TestPlan testPlan = launcher.discover(createRequest(args));
+        for (final TestIdentifier root : testPlan.getRoots()) {
+            reportTestPlan(testPlan, root);
+        }
+    }
+
+    private LauncherDiscoveryRequest createRequest(String[] args) {
+        return LauncherDiscoveryRequestBuilder.request()
+                .selectors(parse(args))
+                .build();
+    }
+
+    /**
+     * The selectors share the same format with the TestNG launcher: a fully qualified class name, or
+     * a fully qualified method name like <code>com.example.FooTest#testBar(java.lang.String)</code>.
+     * Classes are not loaded here, the resolution is left to the test engines.
+     */
+    private List<DiscoverySelector> parse(String[] args) {
+        final List<DiscoverySelector> selectors = new ArrayList<>();
+        for (final String arg : args) {
+            if (arg.indexOf("#") >= 0) {
+                selectors.add(selectMethod(arg));
+            } else {
+                selectors.add(selectClass(arg));
+            }
+        }
+        return selectors;
+    }
+
+    private void reportTestPlan(TestPlan testPlan, TestIdentifier identifier) {
+        final TestSource source = identifier.getSource().orElse(null);
+        if (source instanceof MethodSource) {
+            // the invocations of test templates and test factories are only known at execution time
+            final MethodSource methodSource = (MethodSource) source;
+            TestRunnerMessageHelper.treeNode(methodSource.getClassName(), methodSource.getMethodName());
+            return;
+        }
+
+        final String className = source instanceof ClassSource ? ((ClassSource) source).getClassName() : null;
+        if (className != null) {
+            TestRunnerMessageHelper.suiteTreeNodeStarted(className);
+        }
+        for (final TestIdentifier child : testPlan.getChildren(identifier)) {
+            reportTestPlan(testPlan, child);
+        }
+        if (className != null) {
+            TestRunnerMessageHelper.suiteTreeNodeEnded(className);
+        }
+    }
+}
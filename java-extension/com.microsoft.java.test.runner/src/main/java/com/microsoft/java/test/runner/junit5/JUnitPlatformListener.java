@@ -0,0 +1,211 @@
+/*******************************************************************************
+* Copyright (c) 2020 Microsoft Corporation and others.
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     Microsoft Corporation - initial API and implementation
+*******************************************************************************/
+
+package com.microsoft.java.test.runner.junit5;
+
+import com.microsoft.java.test.runner.common.Pair;
+import com.microsoft.java.test.runner.common.TestProfiler;
+import com.microsoft.java.test.runner.common.TestResourceMonitor;
+import com.microsoft.java.test.runner.common.TestRunnerMessageHelper;
+import com.microsoft.java.test.runner.common.TestWatchdog;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reports the JUnit Platform execution events with the same protocol used by the TestNG runner.
+ *
+ * The client identifies a test by <code>className#methodName</code>, so the events are reported at the
+ * method level. Parameterized, repeated and dynamic tests are containers whose invocations share the same
+ * method source, their results are merged into the result of the method.
+ */
+public class JUnitPlatformListener implements TestExecutionListener {
+
+    private TestPlan testPlan;
+    // the tests may run in parallel
+    private final Map<String, Long> startTimeMap = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Throwable>> failureMap = new ConcurrentHashMap<>();
+    private final Map<String, TestResourceMonitor.Snapshot> snapshotMap = new ConcurrentHashMap<>();
+    private final AtomicInteger all = new AtomicInteger();
+    private final AtomicInteger fail = new AtomicInteger();
+    private final AtomicInteger skip = new AtomicInteger();
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan plan) {
+        this.testPlan = plan;
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan plan) {
+        TestProfiler.reportProfiles();
+        TestRunnerMessageHelper.testRunFinished(all.get(), fail.get(), skip.get());
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier identifier) {
+        if (!isReportedMethod(identifier)) {
+            return;
+        }
+        startTimeMap.put(identifier.getUniqueId(), System.currentTimeMillis());
+        if (TestResourceMonitor.isEnabled()) {
+            snapshotMap.put(identifier.getUniqueId(), TestResourceMonitor.start());
+        }
+        TestProfiler.testStarted(identifier.getUniqueId(), getMethodName(identifier));
+        TestWatchdog.testStarted(identifier.getUniqueId(), getMethodName(identifier));
+        TestRunnerMessageHelper.testStarted(getMethodName(identifier));
+    }
+
+    @Override
+    public void executionSkipped(TestIdentifier identifier, String reason) {
+        if (!isReportedMethod(identifier)) {
+            return;
+        }
+        all.incrementAndGet();
+        skip.incrementAndGet();
+        TestRunnerMessageHelper.testIgnored(getMethodName(identifier));
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+        if (isReportedMethod(identifier)) {
+            onMethodFinished(identifier, result);
+            return;
+        }
+
+        if (result.getStatus() != TestExecutionResult.Status.FAILED) {
+            return;
+        }
+
+        final TestIdentifier method = findReportedMethod(identifier);
+        if (method != null) {
+            // an invocation of a parameterized, repeated or dynamic test
+            failureMap.putIfAbsent(method.getUniqueId(), result.getThrowable());
+        } else {
+            // failures out of the test methods, e.g. in @BeforeAll
+            final String name = getClassName(identifier);
+            if (name != null) {
+                TestRunnerMessageHelper.testFailed(name, result.getThrowable().orElse(null), 0L);
+            }
+        }
+    }
+
+    private void onMethodFinished(TestIdentifier identifier, TestExecutionResult result) {
+        final String name = getMethodName(identifier);
+        final boolean reportedByWatchdog = TestWatchdog.testEnded(identifier.getUniqueId());
+        final Long startTime = startTimeMap.remove(identifier.getUniqueId());
+        final long duration = startTime == null ? 0L : System.currentTimeMillis() - startTime;
+        final TestResourceMonitor.Snapshot snapshot = snapshotMap.remove(identifier.getUniqueId());
+        final List<Pair> metrics = snapshot == null ? null : TestResourceMonitor.end(snapshot);
+        all.incrementAndGet();
+
+        Throwable throwable = result.getThrowable().orElse(null);
+        final Optional<Throwable> invocationFailure = failureMap.remove(identifier.getUniqueId());
+        final boolean hasFailedInvocation = invocationFailure != null;
+        if (hasFailedInvocation && throwable == null) {
+            throwable = invocationFailure.orElse(null);
+        }
+
+        if (reportedByWatchdog) {
+            // already reported as failed when it timed out
+            TestProfiler.testFinished(identifier.getUniqueId(), TestProfiler.STATUS_FAILED);
+            fail.incrementAndGet();
+            return;
+        }
+
+        switch (result.getStatus()) {
+            case ABORTED:
+                // assumption failures
+                TestProfiler.testFinished(identifier.getUniqueId(), TestProfiler.STATUS_SKIPPED);
+                skip.incrementAndGet();
+                TestRunnerMessageHelper.testIgnored(name);
+                break;
+            case FAILED:
+                TestProfiler.testFinished(identifier.getUniqueId(), TestProfiler.STATUS_FAILED);
+                fail.incrementAndGet();
+                TestRunnerMessageHelper.testFailed(name, throwable, duration, metrics);
+                break;
+            default:
+                if (hasFailedInvocation) {
+                    TestProfiler.testFinished(identifier.getUniqueId(), TestProfiler.STATUS_FAILED);
+                    fail.incrementAndGet();
+                    TestRunnerMessageHelper.testFailed(name, throwable, duration, metrics);
+                } else {
+                    TestProfiler.testFinished(identifier.getUniqueId(), TestProfiler.STATUS_PASSED);
+                    TestRunnerMessageHelper.testFinished(name, duration, metrics);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Only the outermost node of a test method is reported, the invocations of a test template or
+     * a test factory share the method source with their parent.
+     */
+    private boolean isReportedMethod(TestIdentifier identifier) {
+        final MethodSource source = getMethodSource(identifier);
+        if (source == null) {
+            return false;
+        }
+        final TestIdentifier parent = getParent(identifier);
+        return parent == null || !source.equals(getMethodSource(parent));
+    }
+
+    private TestIdentifier findReportedMethod(TestIdentifier identifier) {
+        TestIdentifier current = getParent(identifier);
+        while (current != null) {
+            if (isReportedMethod(current)) {
+                return current;
+            }
+            current = getParent(current);
+        }
+        return null;
+    }
+
+    private TestIdentifier getParent(TestIdentifier identifier) {
+        if (testPlan == null) {
+            return null;
+        }
+        final Optional<TestIdentifier> parent = testPlan.getParent(identifier);
+        return parent.orElse(null);
+    }
+
+    private static MethodSource getMethodSource(TestIdentifier identifier) {
+        final TestSource source = identifier.getSource().orElse(null);
+        if (source instanceof MethodSource) {
+            return (MethodSource) source;
+        }
+        return null;
+    }
+
+    private static String getMethodName(TestIdentifier identifier) {
+        final MethodSource source = getMethodSource(identifier);
+        return source.getClassName() + "#" + source.getMethodName();
+    }
+
+    private static String getClassName(TestIdentifier identifier) {
+        final TestSource source = identifier.getSource().orElse(null);
+        if (source instanceof ClassSource) {
+            return ((ClassSource) source).getClassName();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+* Copyright (c) 2020 Microsoft Corporation and others.
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     Microsoft Corporation - initial API and implementation
+*******************************************************************************/
+
+package com.microsoft.java.test.runner.testng;
+
+import com.microsoft.java.test.runner.common.TestRunnerMessageHelper;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Reports the methods TestNG is about to run as a suite tree, and then removes all of them
+ * so nothing gets executed.
+ */
+public class TestNGDiscoveryInterceptor implements IMethodInterceptor {
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        // Methods of the instances created by @Factory appear once per instance
+        final Map<String, Set<String>> classToMethodsMap = new LinkedHashMap<>();
+        for (final IMethodInstance instance : methods) {
+            final ITestNGMethod method = instance.getMethod();
+            classToMethodsMap.computeIfAbsent(method.getTestClass().getName(), k -> new LinkedHashSet<>())
+                    .add(method.getMethodName());
+        }
+
+        for (final Entry<String, Set<String>> entry : classToMethodsMap.entrySet()) {
+            final String className = entry.getKey();
+            TestRunnerMessageHelper.suiteTreeNodeStarted(className);
+            for (final String methodName : entry.getValue()) {
+                TestRunnerMessageHelper.treeNode(className, methodName);
+            }
+            TestRunnerMessageHelper.suiteTreeNodeEnded(className);
+        }
+
+        return Collections.emptyList();
+    }
+}
@@ -14,51 +14,131 @@ package com.microsoft.java.test.runner.testng;
 import com.microsoft.java.test.runner.common.ITestLauncher;
 import com.microsoft.java.test.runner.common.TestMessageItem;
 import com.microsoft.java.test.runner.common.TestOutputStream;
+import com.microsoft.java.test.runner.common.TestRunnerMessageHelper;
 
+import org.testng.xml.Parser;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 public class TestNGLauncher implements ITestLauncher {
+    private static final String SUITE_FILE_SUFFIX = ".xml";
 
     @Override
     public void execute(String[] args) {
-        try {
-            if (args == null || args.length == 0) {
-                throw new RuntimeException("No test found to run.");
-            }
-            final TestNGRunner runner = new TestNGRunner();
-            runner.run(parse(args));
-        } catch (final ClassNotFoundException ex) {
-            TestOutputStream.instance().println(new TestMessageItem("Failed to run TestNG tests", ex));
+        if (args == null || args.length == 0) {
+            throw new RuntimeException("No test found to run.");
         }
+        final Map<String, List<String>> classToMethodsMap = parse(args);
+        removeUnresolvedClasses(classToMethodsMap, true /* reportAsFailure */);
+        if (classToMethodsMap.isEmpty()) {
+            return;
+        }
+        final TestNGRunner runner = new TestNGRunner();
+        runner.run(classToMethodsMap);
     }
 
-    private Map<String, List<String>> parse(String[] args) throws ClassNotFoundException {
-        final Map<String, List<String>> classToMethodsMap = new HashMap<>();
+    @Override
+    public void discover(String[] args) {
+        if (args == null || args.length == 0) {
+            throw new RuntimeException("No test found to discover.");
+        }
+        final Map<String, List<String>> classToMethodsMap = parse(args);
+        removeUnresolvedClasses(classToMethodsMap, false /* reportAsFailure */);
+        if (classToMethodsMap.isEmpty()) {
+            return;
+        }
+        final TestNGRunner runner = new TestNGRunner();
+        runner.discover(classToMethodsMap);
+    }
+
+    /**
+     * The selectors are kept as strings, the classes are loaded by TestNG when the suite is built.
+     * A selector ending with <code>.xml</code> is a suite file, e.g. the <code>testng-failed.xml</code>
+     * written to rerun the failed tests.
+     */
+    private Map<String, List<String>> parse(String[] args) {
+        final Map<String, List<String>> classToMethodsMap = new LinkedHashMap<>();
         for (final String arg : args) {
-            if (arg.indexOf("#") >= 0) {
+            if (arg.endsWith(SUITE_FILE_SUFFIX)) {
+                parseSuiteFile(arg, classToMethodsMap);
+                continue;
+            }
+            final int index = arg.lastIndexOf("#");
+            if (index >= 0) {
                 // The test target is a method
-                classToMethodsMap.computeIfAbsent(getClassNameFromMethod(arg), e -> new ArrayList<>())
-                        .add(getMethodName(arg));
+                classToMethodsMap.computeIfAbsent(arg.substring(0, index), e -> new ArrayList<>())
+                        .add(arg.substring(index + 1));
             } else {
-                classToMethodsMap.put(getClassName(arg), new ArrayList<>());
+                classToMethodsMap.put(arg, new ArrayList<>());
             }
         }
         return classToMethodsMap;
     }
 
-    private static String getClassName(String clazz) throws ClassNotFoundException {
-        return Class.forName(clazz, false, TestNGLauncher.class.getClassLoader()).getName();
+    private void parseSuiteFile(String path, Map<String, List<String>> classToMethodsMap) {
+        final Parser parser = new Parser(path);
+        parser.setLoadClasses(false);
+        final List<XmlSuite> suites;
+        try {
+            suites = parser.parseToList();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse the TestNG suite file: " + path, e);
+        }
+        for (final XmlSuite suite : suites) {
+            for (final XmlTest test : suite.getTests()) {
+                for (final XmlClass xmlClass : test.getXmlClasses()) {
+                    final String className = xmlClass.getName();
+                    final List<String> methods = classToMethodsMap.computeIfAbsent(className, e -> new ArrayList<>());
+                    for (final XmlInclude include : xmlClass.getIncludedMethods()) {
+                        methods.add(include.getName());
+                    }
+                }
+            }
+        }
     }
 
-    private static String getClassNameFromMethod(String clazz) throws ClassNotFoundException {
-        return Class.forName(clazz.substring(0, clazz.lastIndexOf("#")), false,
-                TestNGLauncher.class.getClassLoader()).getName();
-    }
+    /**
+     * TestNG aborts the whole run when one of the classes cannot be found. Here we only look up the class
+     * files, without loading them, so that the missing ones can be reported individually.
+     */
+    private void removeUnresolvedClasses(Map<String, List<String>> classToMethodsMap, boolean reportAsFailure) {
+        final ClassLoader classLoader = TestNGLauncher.class.getClassLoader();
+        final Iterator<Entry<String, List<String>>> iterator = classToMethodsMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Entry<String, List<String>> entry = iterator.next();
+            final String className = entry.getKey();
+            if (classLoader.getResource(className.replace('.', '/') + ".class") != null) {
+                continue;
+            }
 
-    private static String getMethodName(String clazz) {
-        return clazz.substring(clazz.lastIndexOf("#") + 1);
+            iterator.remove();
+            final ClassNotFoundException exception = new ClassNotFoundException(className);
+            if (!reportAsFailure) {
+                TestOutputStream.instance().println(new TestMessageItem("Failed to find the TestNG class", exception));
+                continue;
+            }
+
+            final List<String> names = new ArrayList<>();
+            if (entry.getValue().isEmpty()) {
+                names.add(className);
+            }
+            for (final String method : entry.getValue()) {
+                names.add(className + "#" + method);
+            }
+            for (final String name : names) {
+                TestRunnerMessageHelper.testStarted(name);
+                TestRunnerMessageHelper.testFailed(name, exception, 0L);
+            }
+        }
     }
 }
@@ -11,7 +11,11 @@
 
 package com.microsoft.java.test.runner.testng;
 
+import com.microsoft.java.test.runner.common.Pair;
+import com.microsoft.java.test.runner.common.TestProfiler;
+import com.microsoft.java.test.runner.common.TestResourceMonitor;
 import com.microsoft.java.test.runner.common.TestRunnerMessageHelper;
+import com.microsoft.java.test.runner.common.TestWatchdog;
 
 import org.testng.ISuite;
 import org.testng.ISuiteListener;
@@ -21,25 +25,49 @@ import org.testng.ITestNGListener;
 import org.testng.ITestResult;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TestNGListener implements ISuiteListener, ITestListener, ITestNGListener {
 
+    // the tests may run in parallel
+    private final Map<ITestResult, TestResourceMonitor.Snapshot> snapshotMap = new ConcurrentHashMap<>();
+
     @Override
     public void onTestStart(ITestResult result) {
-        TestRunnerMessageHelper.testStarted(result.getTestClass().getName() + "#" + result.getName());
+        if (TestResourceMonitor.isEnabled()) {
+            snapshotMap.put(result, TestResourceMonitor.start());
+        }
+        final String name = result.getTestClass().getName() + "#" + result.getName();
+        TestProfiler.testStarted(result, name);
+        TestWatchdog.testStarted(result, name);
+        TestRunnerMessageHelper.testStarted(name);
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
         final long duration = result.getEndMillis() - result.getStartMillis();
-        TestRunnerMessageHelper.testFinished(result.getTestClass().getName() + "#" + result.getName(), duration);
+        final List<Pair> metrics = getMetrics(result);
+        if (TestWatchdog.testEnded(result)) {
+            TestProfiler.testFinished(result, TestProfiler.STATUS_FAILED);
+            return;
+        }
+        TestProfiler.testFinished(result, TestProfiler.STATUS_PASSED);
+        TestRunnerMessageHelper.testFinished(result.getTestClass().getName() + "#" + result.getName(), duration,
+                metrics);
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
         final long duration = result.getEndMillis() - result.getStartMillis();
+        final List<Pair> metrics = getMetrics(result);
+        TestProfiler.testFinished(result, TestProfiler.STATUS_FAILED);
+        if (TestWatchdog.testEnded(result)) {
+            return;
+        }
         TestRunnerMessageHelper.testFailed(result.getTestClass().getName() + "#" + result.getName(),
-                result.getThrowable(), duration);
+                result.getThrowable(), duration, metrics);
     }
 
     @Override
@@ -49,6 +77,13 @@ public class TestNGListener implements ISuiteListener, ITestListener, ITestNGLis
             onTestFailure(result);
             return;
         }
+        // the skipped tests report no metrics
+        snapshotMap.remove(result);
+        if (TestWatchdog.testEnded(result)) {
+            TestProfiler.testFinished(result, TestProfiler.STATUS_FAILED);
+            return;
+        }
+        TestProfiler.testFinished(result, TestProfiler.STATUS_SKIPPED);
         TestRunnerMessageHelper.testIgnored(result.getTestClass().getName() + "#" + result.getName());
     }
 
@@ -71,11 +106,21 @@ public class TestNGListener implements ISuiteListener, ITestListener, ITestNGLis
 
     @Override
     public void onFinish(ISuite suite) {
+        TestProfiler.reportProfiles();
         final ITestContext context = getFirst(suite.getResults().values()).getTestContext(); // Can only be one
         TestRunnerMessageHelper.testRunFinished(context.getAllTestMethods().length, context.getFailedTests().size(),
                 context.getSkippedTests().size());
     }
 
+    /**
+     * Remove the snapshot of the test, every terminal callback calls it even when the watchdog already reported
+     * the test.
+     */
+    private List<Pair> getMetrics(ITestResult result) {
+        final TestResourceMonitor.Snapshot snapshot = snapshotMap.remove(result);
+        return snapshot == null ? null : TestResourceMonitor.end(snapshot);
+    }
+
     private static <T> T getFirst(Collection<T> collection) {
         for (final T entry : collection) {
             return entry;
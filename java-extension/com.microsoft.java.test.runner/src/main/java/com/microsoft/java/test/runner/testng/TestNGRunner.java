@@ -27,12 +27,10 @@ import java.util.Map.Entry;
 import java.util.UUID;
 
 public class TestNGRunner {
-    public void run(Map<String, List<String>> map) {
-        final XmlSuite suite = new XmlSuite();
-        createTests(map, suite);
+    private static final String DRY_RUN_PROPERTY = "testng.mode.dryrun";
 
-        final TestNG testNG = new TestNG();
-        testNG.setUseDefaultListeners(false);
+    public void run(Map<String, List<String>> map) {
+        final TestNG testNG = createTestNG(map);
         final ITestNGListener listener = new TestNGListener();
         try {
             testNG.addListener(listener);
@@ -40,11 +38,31 @@ public class TestNGRunner {
             // backward compatibility
             testNG.addListener((ITestListener) listener);
         }
-        
-        testNG.setXmlSuites(Collections.singletonList(suite));
         testNG.run();
     }
 
+    /**
+     * Let TestNG resolve the test methods, including the instances created by <code>@Factory</code>,
+     * but stop before any of them is invoked.
+     */
+    public void discover(Map<String, List<String>> map) {
+        final TestNG testNG = createTestNG(map);
+        // the dry run mode prevents the configuration methods from being invoked
+        System.setProperty(DRY_RUN_PROPERTY, "true");
+        testNG.setMethodInterceptor(new TestNGDiscoveryInterceptor());
+        testNG.run();
+    }
+
+    private TestNG createTestNG(Map<String, List<String>> map) {
+        final XmlSuite suite = new XmlSuite();
+        createTests(map, suite);
+
+        final TestNG testNG = new TestNG();
+        testNG.setUseDefaultListeners(false);
+        testNG.setXmlSuites(Collections.singletonList(suite));
+        return testNG;
+    }
+
     private void createTests(Map<String, List<String>> map, XmlSuite suite) {
         final XmlTest test = new XmlTest(suite);
         test.setName("TestNGTest-" + UUID.randomUUID().toString());
@@ -56,7 +74,7 @@ public class TestNGRunner {
     }
 
     private XmlClass createClass(String clazz, List<String> methods) {
-        final XmlClass xmlClass = new XmlClass(clazz);
+        final XmlClass xmlClass = new XmlClass(clazz, false /* loadClasses */);
         if (methods.size() != 0) {
             final List<XmlInclude> includes = new ArrayList<>();
             for (final String method: methods) {
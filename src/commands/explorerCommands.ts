@@ -9,6 +9,7 @@ import { ITestItem, TestKind, TestLevel } from '../protocols';
 import { IRunnerContext } from '../runners/models';
 import { runnerScheduler } from '../runners/runnerScheduler';
 import { testItemModel } from '../testItemModel';
+import { hasRange } from '../utils/protocolUtils';
 import { executeTestsFromUri } from './runFromUri';
 
 export async function openTextDocument(uri: Uri, range?: Range): Promise<void> {
@@ -16,6 +17,15 @@ export async function openTextDocument(uri: Uri, range?: Range): Promise<void> {
     await window.showTextDocument(document, {selection: range, viewColumn: ViewColumn.One});
 }
 
+/**
+ * Open a test item of the Test Explorer, whose range might not be resolved yet.
+ */
+export async function openTestItem(node: ITestItem): Promise<void> {
+    await testItemModel.resolveRange(node);
+    const document: TextDocument = await workspace.openTextDocument(Uri.parse(node.location.uri));
+    await window.showTextDocument(document, { preserveFocus: true, selection: hasRange(node) ? node.location.range : undefined });
+}
+
 export async function runTestsFromExplorer(node?: ITestItem, launchConfiguration?: DebugConfiguration): Promise<void> {
     return executeTestsFromExplorer(false /* isDebug */, node, launchConfiguration);
 }
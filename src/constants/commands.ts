@@ -13,11 +13,17 @@ export namespace JavaTestRunnerDelegateCommands {
     export const SEARCH_TEST_CODE_LENS: string = 'vscode.java.test.search.codelens';
     export const SEARCH_TEST_LOCATION: string = 'vscode.java.test.search.location';
     export const RESOLVE_JUNIT_ARGUMENT: string = 'vscode.java.test.junit.argument';
+    export const RESOLVE_JUNIT_ARGUMENTS: string = 'vscode.java.test.junit.arguments';
+    export const RESOLVE_RERUN_FAILURES_ARGUMENT: string = 'vscode.java.test.rerun.failures.argument';
+    export const RECORD_TEST_RESULTS: string = 'vscode.java.test.results.record';
+    export const READ_TEST_JOURNAL: string = 'vscode.java.test.journal.read';
 }
 
 export namespace JavaTestRunnerCommands {
     export const OPEN_DOCUMENT: string = 'java.test.open.document';
     export const REFRESH_EXPLORER: string = 'java.test.explorer.refresh';
+    export const OPEN_TEST_FROM_EXPLORER: string = 'java.test.explorer.open';
+    export const LOAD_MORE_FROM_EXPLORER: string = 'java.test.explorer.loadMore';
     export const RUN_TEST_FROM_CODELENS: string = 'java.test.run';
     export const DEBUG_TEST_FROM_CODELENS: string = 'java.test.debug';
     export const RUN_TEST_FROM_EXPLORER: string = 'java.test.explorer.run';
@@ -32,10 +38,12 @@ export namespace JavaTestRunnerCommands {
     export const SHOW_TEST_OUTPUT: string = 'java.test.show.output';
     export const OPEN_TEST_LOG: string = 'java.test.open.log';
     export const RELAUNCH_TESTS: string = 'java.test.relaunch';
+    export const RERUN_FAILED_TESTS: string = 'java.test.rerunFailures';
     export const JAVA_TEST_CANCEL: string = 'java.test.cancel';
     export const JAVA_CONFIG_MIGRATE: string = 'java.test.config.migrate';
     export const JAVA_TEST_REPORT_OPEN_STACKTRACE: string = 'java.test.report.openStackTrace';
     export const JAVA_TEST_REPORT_OPEN_TEST_SOURCE_LOCATION: string = 'java.test.report.openTestSourceLocation';
+    export const TEST_SOURCE_PATHS_CHANGED: string = 'java.test.sourcePathsChanged';
 }
 
 export namespace VsCodeCommands {
@@ -18,6 +18,10 @@ export const DEFAULT_REPORT_POSITION: string = 'sideView';
 
 export const ENABLE_EDITOR_SHORTCUTS_KEY: string = 'java.test.editor.enableShortcuts';
 
+export const SKIP_UNCHANGED_PASSED_TESTS_SETTING_KEY: string = 'java.test.skipUnchangedPassedTests';
+
+export const JOURNAL_ENABLED_SETTING_KEY: string = 'java.test.journal.enabled';
+
 export const REPORT_SHOW_SETTING_KEY: string = 'java.test.report.showAfterExecution';
 export const DEFAULT_REPORT_SHOW: string = 'onFailure';
 
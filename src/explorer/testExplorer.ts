@@ -3,13 +3,14 @@
 
 import * as path from 'path';
 import { Command, Disposable, Event, EventEmitter, ExtensionContext, extensions, Range, ThemeColor, ThemeIcon, TreeDataProvider, TreeItem, TreeItemCollapsibleState, Uri, workspace, WorkspaceFolder } from 'vscode';
-import { VsCodeCommands } from '../constants/commands';
+import { JavaTestRunnerCommands, VsCodeCommands } from '../constants/commands';
 import { isLightWeightMode, isSwitchingServer } from '../extension';
 import { ITestItem, TestKind, TestLevel } from '../protocols';
 import { ITestResult, TestStatus } from '../runners/models';
 import { testFileWatcher } from '../testFileWatcher';
 import { testItemModel } from '../testItemModel';
 import { testResultManager } from '../testResultManager';
+import { hasRange } from '../utils/protocolUtils';
 
 export class TestExplorer implements TreeDataProvider<ITestItem>, Disposable {
     public readonly testExplorerViewId: string = 'testExplorer';
@@ -19,12 +20,27 @@ export class TestExplorer implements TreeDataProvider<ITestItem>, Disposable {
     public readonly onDidChangeTreeData: Event<ITestItem | null | undefined> = this.onDidChangeTreeDataEventEmitter.event;
 
     private _context: ExtensionContext;
+    // the placeholders to load the next page of a package, mapped to the package
+    private loadMoreParents: Map<string, ITestItem> = new Map<string, ITestItem>();
 
     public initialize(context: ExtensionContext): void {
         this._context = context;
     }
 
     public getTreeItem(element: ITestItem): TreeItem | Thenable<TreeItem> {
+        const parent: ITestItem | undefined = this.loadMoreParents.get(element.id);
+        if (parent) {
+            return {
+                label: 'Load More...',
+                collapsibleState: TreeItemCollapsibleState.None,
+                command: {
+                    command: JavaTestRunnerCommands.LOAD_MORE_FROM_EXPLORER,
+                    title: 'Load More',
+                    arguments: [parent],
+                },
+                contextValue: 'UNTESTABLE_NODE',
+            };
+        }
         return {
             label: element.displayName,
             collapsibleState: this.resolveCollapsibleState(element),
@@ -50,7 +66,19 @@ export class TestExplorer implements TreeDataProvider<ITestItem>, Disposable {
         } else {
             nodes = await testItemModel.getNodeChildren(element);
         }
-        return nodes.sort((a: ITestItem, b: ITestItem) => a.displayName.localeCompare(b.displayName));
+        nodes.sort((a: ITestItem, b: ITestItem) => a.displayName.localeCompare(b.displayName));
+        if (element && element.level === TestLevel.Package && testItemModel.hasMorePackageChildren(element)) {
+            nodes.push(this.createLoadMoreItem(element));
+        }
+        return nodes;
+    }
+
+    /**
+     * Show the next page of the classes of the package.
+     */
+    public loadMore(parent: ITestItem): void {
+        testItemModel.requestMorePackageChildren(parent);
+        this.refresh(parent);
     }
 
     public refresh(element?: ITestItem): void {
@@ -62,6 +90,22 @@ export class TestExplorer implements TreeDataProvider<ITestItem>, Disposable {
 
     public dispose(): void {
         this.onDidChangeTreeDataEventEmitter.dispose();
+        this.loadMoreParents.clear();
+    }
+
+    private createLoadMoreItem(parent: ITestItem): ITestItem {
+        const id: string = `${parent.id}@loadMore`;
+        this.loadMoreParents.set(id, parent);
+        return {
+            id,
+            displayName: 'Load More...',
+            fullName: parent.fullName,
+            kind: TestKind.None,
+            project: parent.project,
+            level: parent.level,
+            location: parent.location,
+            children: undefined,
+        };
     }
 
     private getWorkspaceFolders(): ITestItem[] {
@@ -126,6 +170,14 @@ export class TestExplorer implements TreeDataProvider<ITestItem>, Disposable {
     }
 
     private resolveCommand(element: ITestItem): Command | undefined {
+        if (element.level >= TestLevel.Class && !hasRange(element)) {
+            // the range is resolved when the class is opened
+            return {
+                command: JavaTestRunnerCommands.OPEN_TEST_FROM_EXPLORER,
+                title: 'Open File',
+                arguments: [element],
+            };
+        }
         if (element.level >= TestLevel.Class) {
             return {
                 command: VsCodeCommands.VSCODE_OPEN,
@@ -8,7 +8,7 @@ import { commands, DebugConfiguration, Event, Extension, ExtensionContext, exten
 import { dispose as disposeTelemetryWrapper, initializeFromJsonFile, instrumentOperation, instrumentOperationAsVsCodeCommand } from 'vscode-extension-telemetry-wrapper';
 import { sendInfo } from 'vscode-extension-telemetry-wrapper';
 import { testCodeLensController } from './codelens/TestCodeLensController';
-import { debugTestsFromExplorer, openTextDocument, runTestsFromExplorer, runTestsFromJavaProjectExplorer } from './commands/explorerCommands';
+import { debugTestsFromExplorer, openTestItem, openTextDocument, runTestsFromExplorer, runTestsFromJavaProjectExplorer } from './commands/explorerCommands';
 import { openLogFile, showOutputChannel } from './commands/logCommands';
 import { runFromCodeLens } from './commands/runFromCodeLens';
 import { executeTestsFromUri } from './commands/runFromUri';
@@ -21,6 +21,7 @@ import { logger } from './logger/logger';
 import { ITestItem } from './protocols';
 import { ITestResult } from './runners/models';
 import { runnerScheduler } from './runners/runnerScheduler';
+import { testSessionServer } from './runners/testngRunner/testSessionServer';
 import { testFileWatcher } from './testFileWatcher';
 import { testItemModel } from './testItemModel';
 import { testReportProvider } from './testReportProvider';
@@ -38,6 +39,7 @@ export async function deactivate(): Promise<void> {
     sendInfo('treeViewEventSummary', EventCounter.dict);
     await disposeTelemetryWrapper();
     await runnerScheduler.cleanUp(false /* isCancel */);
+    testSessionServer.dispose();
 }
 
 async function doActivate(_operationId: string, context: ExtensionContext): Promise<void> {
@@ -55,13 +57,6 @@ async function doActivate(_operationId: string, context: ExtensionContext): Prom
 
         serverMode = extensionApi.serverMode;
 
-        if (extensionApi.onDidClasspathUpdate) {
-            const onDidClasspathUpdate: Event<Uri> = extensionApi.onDidClasspathUpdate;
-            context.subscriptions.push(onDidClasspathUpdate(async () => {
-                await testFileWatcher.registerListeners(true /*enableDebounce*/);
-            }));
-        }
-
         if (extensionApi.onDidServerModeChange) {
             const onDidServerModeChange: Event<string> = extensionApi.onDidServerModeChange;
             context.subscriptions.push(onDidServerModeChange(async (mode: string) => {
@@ -104,6 +99,8 @@ async function doActivate(_operationId: string, context: ExtensionContext): Prom
         testItemModel,
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.OPEN_DOCUMENT, async (uri: Uri, range?: Range) => await openTextDocument(uri, range)),
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.REFRESH_EXPLORER, (node: ITestItem) => testExplorer.refresh(node)),
+        instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.OPEN_TEST_FROM_EXPLORER, async (node: ITestItem) => await openTestItem(node)),
+        instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.LOAD_MORE_FROM_EXPLORER, (node: ITestItem) => testExplorer.loadMore(node)),
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.RUN_TEST_FROM_CODELENS, async (test: ITestItem) => await runFromCodeLens(test, false /* isDebug */)),
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.DEBUG_TEST_FROM_CODELENS, async (test: ITestItem) => await runFromCodeLens(test, true /* isDebug */)),
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.RUN_ALL_TEST_FROM_EXPLORER, async () => await runTestsFromExplorer()),
@@ -111,6 +108,7 @@ async function doActivate(_operationId: string, context: ExtensionContext): Prom
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.RUN_TEST_FROM_EXPLORER, async (node?: ITestItem, launchConfiguration?: DebugConfiguration) => await runTestsFromExplorer(node, launchConfiguration)),
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.DEBUG_TEST_FROM_EXPLORER, async (node?: ITestItem, launchConfiguration?: DebugConfiguration) => await debugTestsFromExplorer(node, launchConfiguration)),
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.RELAUNCH_TESTS, async () => await runnerScheduler.relaunch()),
+        instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.RERUN_FAILED_TESTS, async () => await runnerScheduler.rerunFailures()),
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.SHOW_TEST_REPORT, async (tests?: ITestResult[]) => await testReportProvider.report(tests)),
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.SHOW_TEST_OUTPUT, () => showOutputChannel()),
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.OPEN_TEST_LOG, async () => await openLogFile(storagePath)),
@@ -122,6 +120,8 @@ async function doActivate(_operationId: string, context: ExtensionContext): Prom
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.JAVA_TEST_REPORT_OPEN_TEST_SOURCE_LOCATION, async (uri: string, range: string, fullName: string) => await openTestSourceLocation(uri, range, fullName)),
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.RUN_TEST_FROM_JAVA_PROJECT_EXPLORER, async (node: any) => await runTestsFromJavaProjectExplorer(node, false /* isDebug */)),
         instrumentOperationAsVsCodeCommand(JavaTestRunnerCommands.DEBUG_TEST_FROM_JAVA_PROJECT_EXPLORER, async (node: any) => await runTestsFromJavaProjectExplorer(node, true /* isDebug */)),
+        // notified by the Java test plugin when the classpath changes alter the test source paths
+        commands.registerCommand(JavaTestRunnerCommands.TEST_SOURCE_PATHS_CHANGED, async () => await testFileWatcher.registerListeners(true /*enableDebounce*/)),
 
         // track the test tree view events.
         testTreeView.onDidChangeSelection((_e: TreeViewSelectionChangeEvent<ITestItem>) => {
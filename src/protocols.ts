@@ -24,6 +24,9 @@ export interface ISearchTestItemParams {
     fullName: string;
     uri: string;
     isHierarchicalPackage?: boolean;
+    offset?: number;
+    limit?: number;
+    omitRange?: boolean;
 }
 
 export enum TestLevel {
@@ -12,6 +12,7 @@ export interface IExecutionConfig {
     vmArgs?: any[];
     env?: { [key: string]: string; };
     sourcePaths?: string[];
+    profile?: boolean;
 }
 
 export interface IExecutionConfigGroup {
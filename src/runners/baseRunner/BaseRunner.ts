@@ -7,11 +7,11 @@ import * as iconv from 'iconv-lite';
 import { AddressInfo, createServer, Server, Socket } from 'net';
 import * as os from 'os';
 import * as path from 'path';
-import { debug, DebugConfiguration, DebugSession, Disposable, Uri, workspace } from 'vscode';
+import { commands, debug, DebugConfiguration, DebugSession, Disposable, Position, Uri, window, workspace } from 'vscode';
 import { LOCAL_HOST } from '../../constants/configs';
 import { IProgressReporter } from '../../debugger.api';
 import { logger } from '../../logger/logger';
-import { ITestItem, TestLevel } from '../../protocols';
+import { ITestItem, TestKind, TestLevel } from '../../protocols';
 import { IExecutionConfig } from '../../runConfigs';
 import { testResultManager } from '../../testResultManager';
 import { ITestRunner } from '../ITestRunner';
@@ -42,29 +42,30 @@ export abstract class BaseRunner implements ITestRunner {
     }
 
     public async run(launchConfiguration: DebugConfiguration, progressReporter?: IProgressReporter): Promise<Set<string>> {
-        let data: string = '';
-        this.server.on('connection', (socket: Socket) => {
-            this.socket = socket;
-            socket.on('error', (err: Error) => {
-                throw err;
-            });
-
-            socket.on('data', (buffer: Buffer) => {
-                data = data.concat(iconv.decode(buffer, launchConfiguration.encoding || 'utf8'));
-                const index: number = data.lastIndexOf(os.EOL);
-                if (index >= 0) {
-                    this.testResultAnalyzer.analyzeData(data.substring(0, index + os.EOL.length));
-                    data = data.substring(index + os.EOL.length);
-                }
-            });
-
-            socket.on('error', (err: Error) => {
-                throw err;
-            });
+        // The tests skipped by the test result cache of the server
+        const cachedTests: string[] | undefined = launchConfiguration.__cachedTests;
+        const allTestsCached: boolean = !!launchConfiguration.__allTestsCached;
+        delete launchConfiguration.__cachedTests;
+        delete launchConfiguration.__allTestsCached;
+        // The flight recording dumped when the tests exit, in the profiling mode
+        const recordingFile: string | undefined = launchConfiguration.__recordingFile;
+        delete launchConfiguration.__recordingFile;
+        if (cachedTests) {
+            this.testResultAnalyzer.replayCachedResults(cachedTests);
+        }
+        if (allTestsCached) {
+            this.tearDown();
+            return this.testResultAnalyzer.tearDown();
+        }
 
-            this.server.on('error', (err: Error) => {
-                throw err;
-            });
+        let data: string = '';
+        this.listen(launchConfiguration, (received: string) => {
+            data = data.concat(received);
+            const index: number = data.lastIndexOf(os.EOL);
+            if (index >= 0) {
+                this.testResultAnalyzer.analyzeData(data.substring(0, index + os.EOL.length));
+                data = data.substring(index + os.EOL.length);
+            }
         });
 
         // Run from integrated terminal will terminate the debug session immediately after launching,
@@ -85,11 +86,17 @@ export abstract class BaseRunner implements ITestRunner {
 
             return await new Promise<Set<string>>((resolve: (ids: Set<string>) => void): void => {
                 this.disposables.push(
-                    debug.onDidTerminateDebugSession((session: DebugSession): void => {
+                    debug.onDidTerminateDebugSession(async (session: DebugSession): Promise<void> => {
                         if (launchConfiguration.name === session.name) {
-                            this.tearDown();
                             if (data.length > 0) {
                                 this.testResultAnalyzer.analyzeData(data);
+                                data = '';
+                            }
+                            // Before the tear down, which resets the results of the running tests
+                            await this.recoverMissedResults();
+                            this.tearDown();
+                            if (recordingFile) {
+                                this.showRecordingFile(recordingFile);
                             }
                             return resolve(this.testResultAnalyzer.tearDown());
                         }
@@ -153,11 +160,14 @@ export abstract class BaseRunner implements ITestRunner {
         throw new Error('The socket server is not started yet.');
     }
 
-    public getApplicationArgs(config?: IExecutionConfig): string[] {
+    /**
+     * @param selectors the tests to run in place of the tests of the runner context, e.g. the suite file of a rerun
+     */
+    public getApplicationArgs(config?: IExecutionConfig, selectors?: string[]): string[] {
         const applicationArgs: string[] = [];
-        applicationArgs.push(`${(this.server.address() as AddressInfo).port}`);
+        applicationArgs.push(`${this.serverPort}`);
 
-        applicationArgs.push(...this.getRunnerCommandParams(config));
+        applicationArgs.push(...this.getRunnerCommandParams(config, selectors));
 
         if (config && config.args) {
             applicationArgs.push(...config.args.filter(Boolean));
@@ -172,10 +182,42 @@ export abstract class BaseRunner implements ITestRunner {
         return path.join(this.extensionPath, 'server');
     }
 
-    protected getRunnerCommandParams(_config?: IExecutionConfig): string[] {
+    protected getRunnerCommandParams(_config?: IExecutionConfig, _selectors?: string[]): string[] {
         return [];
     }
 
+    /**
+     * Called when the test JVM terminates, to recover the results which were not received through the socket,
+     * e.g. when the JVM crashed.
+     */
+    protected async recoverMissedResults(): Promise<void> {
+        return;
+    }
+
+    /**
+     * Listen to the messages sent by the test runner, `onData` receives them decoded.
+     */
+    protected listen(launchConfiguration: DebugConfiguration, onData: (data: string) => void): void {
+        this.server.on('connection', (socket: Socket) => {
+            this.socket = socket;
+            socket.on('error', (err: Error) => {
+                throw err;
+            });
+
+            socket.on('data', (buffer: Buffer) => {
+                onData(iconv.decode(buffer, launchConfiguration.encoding || 'utf8'));
+            });
+
+            socket.on('error', (err: Error) => {
+                throw err;
+            });
+
+            this.server.on('error', (err: Error) => {
+                throw err;
+            });
+        });
+    }
+
     protected async startSocketServer(): Promise<void> {
         this.server = createServer();
         const socketPort: number = await getPort();
@@ -192,6 +234,15 @@ export abstract class BaseRunner implements ITestRunner {
         throw new Error(`Failed to find path: ${fullPath}`);
     }
 
+    private async showRecordingFile(recordingFile: string): Promise<void> {
+        logger.info(`The flight recording of the tests is saved to: ${recordingFile}`);
+        const REVEAL: string = 'Reveal in File Explorer';
+        const choice: string | undefined = await window.showInformationMessage(`The flight recording of the tests is saved to: ${recordingFile}`, REVEAL);
+        if (choice === REVEAL) {
+            commands.executeCommand('revealFileInOS', Uri.file(recordingFile));
+        }
+    }
+
     private updateTestResultsToPending(): void {
         const runningResults: ITestResult[] = [];
         for (const id of this.testIds) {
@@ -229,4 +280,29 @@ export interface IJUnitLaunchArguments {
     modulepath: string[];
     vmArguments: string[];
     programArguments: string[];
+    cachedTests?: string[];
+    allTestsCached?: boolean;
+    recordingFile?: string;
+    testNGSuiteFile?: string;
+}
+
+export interface IJUnitLaunchArgumentsRequest {
+    uri: string;
+    classFullName: string;
+    testName: string;
+    project: string;
+    scope: TestLevel;
+    testKind: TestKind;
+    start?: Position;
+    end?: Position;
+    isHierarchicalPackage?: boolean;
+    skipCachedTests?: boolean;
+    profile?: boolean;
+    // identifies the launch when its results are recorded
+    launchId?: string;
+}
+
+export interface IJUnitLaunchArgumentsResult {
+    launchArguments?: IJUnitLaunchArguments;
+    errorMessage?: string;
 }
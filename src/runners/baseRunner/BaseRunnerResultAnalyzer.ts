@@ -7,6 +7,9 @@ import { ITestOutputData, ITestResult, TestStatus } from '../models';
 
 export abstract class BaseRunnerResultAnalyzer {
     protected testIds: Set<string> = new Set<string>();
+    // The count of the messages sent by the runner, reported when it closes normally
+    protected sentMessageCount: number | undefined;
+    private receivedMessages: number = 0;
     private readonly regex: RegExp = /@@<TestRunner-({[\s\S]*?})-TestRunner>/;
 
     constructor(protected projectName: string) {
@@ -21,6 +24,7 @@ export abstract class BaseRunnerResultAnalyzer {
             const match: RegExpExecArray | null = this.regex.exec(line);
             if (match) {
                 // Message from Test Runner executable
+                this.receivedMessages++;
                 try {
                     this.processData(match[1]);
                 } catch (error) {
@@ -33,6 +37,35 @@ export abstract class BaseRunnerResultAnalyzer {
         }
     }
 
+    public get receivedMessageCount(): number {
+        return this.receivedMessages;
+    }
+
+    /**
+     * If the runner didn't close normally, or some of its messages were not received.
+     */
+    public get hasMissedMessages(): boolean {
+        // The closing message is not counted by the runner
+        return this.sentMessageCount === undefined || this.receivedMessages <= this.sentMessageCount;
+    }
+
+    /**
+     * Report the tests which are skipped since they passed with unchanged bytecode and dependencies, as if they were
+     * reported by the runner.
+     */
+    public replayCachedResults(fullNames: string[]): void {
+        for (const fullName of fullNames) {
+            const id: string = `${this.projectName}@${fullName}`;
+            testResultManager.storeResult({
+                id,
+                status: TestStatus.Pass,
+                duration: 0,
+                summary: 'Skipped, passed with unchanged bytecode and dependencies',
+            });
+            this.testIds.add(id);
+        }
+    }
+
     public tearDown(): Set<string> {
         for (const id of this.testIds) {
             const result: ITestResult | undefined = testResultManager.getResultById(id);
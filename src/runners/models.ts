@@ -10,6 +10,33 @@ export interface ITestResult {
     message?: string;
     duration?: number;
     summary?: string;
+    metrics?: ITestMetrics;
+    profile?: ITestProfile;
+}
+
+/**
+ * The resource usage of a test, reported by the runner when it's launched with
+ * -Dcom.microsoft.java.test.runner.metrics=true.
+ */
+export interface ITestMetrics {
+    cpuTime?: number;
+    allocatedBytes?: number;
+    gcCount?: number;
+    gcTime?: number;
+}
+
+/**
+ * The hot methods and the allocation sites of a test, reported by the runner in the profiling mode.
+ */
+export interface ITestProfile {
+    hotMethods: string[];
+    allocationSites: string[];
+}
+
+export interface ITestJournalContent {
+    messages: string[];
+    // if the runner exited normally
+    closed: boolean;
 }
 
 export enum TestStatus {
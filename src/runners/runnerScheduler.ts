@@ -10,14 +10,16 @@ import { progressProvider } from '../extension';
 import { logger } from '../logger/logger';
 import { ITestItem, TestKind } from '../protocols';
 import { IExecutionConfig } from '../runConfigs';
+import { testItemModel } from '../testItemModel';
 import { testReportProvider } from '../testReportProvider';
 import { testResultManager } from '../testResultManager';
 import { testStatusBarProvider } from '../testStatusBarProvider';
-import { loadRunConfig } from '../utils/configUtils';
-import { resolveLaunchConfigurationForRunner } from '../utils/launchUtils';
-import { getShowReportSetting } from '../utils/settingUtils';
+import { recordTestResults, resolveJUnitLaunchArgumentsInBatch, resolveRerunFailuresArguments } from '../utils/commandUtils';
+import { loadRunConfig, randomSequence } from '../utils/configUtils';
+import { getLaunchArgumentsRequest, resolveLaunchConfigurationForRunner } from '../utils/launchUtils';
+import { getShowReportSetting, getSkipUnchangedPassedTestsSetting } from '../utils/settingUtils';
 import * as uiUtils from '../utils/uiUtils';
-import { BaseRunner } from './baseRunner/BaseRunner';
+import { BaseRunner, IJUnitLaunchArgumentsResult } from './baseRunner/BaseRunner';
 import { JUnitRunner } from './junitRunner/JunitRunner';
 import { IRunnerContext, ITestResult, TestStatus } from './models';
 import { TestNGRunner } from './testngRunner/TestNGRunner';
@@ -41,7 +43,60 @@ class RunnerScheduler {
         await this.run(this._executionCache.context);
     }
 
+    /**
+     * Run the failed tests of the last run again. The server reuses the launch arguments resolved for the last launch
+     * of each project, the classpath is not resolved again.
+     */
+    public async rerunFailures(): Promise<void> {
+        const failedTests: ITestItem[] = this.getFailedTests();
+        if (!this._executionCache || failedTests.length === 0) {
+            logger.info('No failed test found in the last run, please run some test cases first to rerun the failed tests.\n');
+            return;
+        }
+
+        const runnerContext: IRunnerContext = {
+            ...this._executionCache.context,
+            tests: failedTests,
+        };
+        await this.execute(runnerContext, undefined, undefined, async (pendingRuns: IPendingRun[]) => await this.resolveRerunArguments(pendingRuns));
+    }
+
     public async run(runnerContext: IRunnerContext, progressReporter?: IProgressReporter, launchConfiguration?: DebugConfiguration): Promise<void> {
+        await this.execute(runnerContext, progressReporter, launchConfiguration, async (pendingRuns: IPendingRun[]) => {
+            // Resolve the launch arguments of all the runners in one request
+            return await resolveJUnitLaunchArgumentsInBatch(pendingRuns.map((pendingRun: IPendingRun) => {
+                return getLaunchArgumentsRequest(pendingRun.context, pendingRun.config, pendingRun.launchId);
+            }));
+        });
+    }
+
+    public getExecutionCache(): IExecutionCache | undefined {
+        return this._executionCache;
+    }
+
+    public async cleanUp(isCancel: boolean): Promise<void> {
+        try {
+            const promises: Array<Promise<void>> = [];
+            if (this._runnerMap) {
+                for (const runner of this._runnerMap.keys()) {
+                    promises.push(runner.tearDown());
+                }
+                this._runnerMap.clear();
+                this._runnerMap = undefined;
+            }
+            await Promise.all(promises);
+
+            if (isCancel) {
+                logger.info('Test job is canceled.\n');
+            }
+        } catch (error) {
+            logger.error('Failed to clean up', error);
+        }
+        this._isRunning = false;
+    }
+
+    private async execute(runnerContext: IRunnerContext, progressReporter: IProgressReporter | undefined, launchConfiguration: DebugConfiguration | undefined,
+                          resolveLaunchArguments: (pendingRuns: IPendingRun[]) => Promise<IJUnitLaunchArgumentsResult[]>): Promise<void> {
         if (this._isRunning) {
             window.showInformationMessage('A test session is currently running. Please wait until it finishes.\n');
             return;
@@ -58,28 +113,64 @@ class RunnerScheduler {
         let allIds: Set<string> = new Set<string>();
         try {
             this._runnerMap = this.classifyTestsByKind(runnerContext.tests);
+            const pendingRuns: IPendingRun[] = [];
             for (const [runner, tests] of this._runnerMap.entries()) {
-                runnerContext.kind = tests[0].kind;
-                runnerContext.projectName = tests[0].project;
-                runnerContext.tests = tests;
+                const context: IRunnerContext = {
+                    ...runnerContext,
+                    kind: tests[0].kind,
+                    projectName: tests[0].project,
+                    tests,
+                };
+
+                await runner.setup(context);
+                // The launches of the same project may overlap, their results are recorded by the launch id
+                const launchId: string = randomSequence();
+                if (launchConfiguration) {
+                    pendingRuns.push({ runner, context, launchId });
+                    continue;
+                }
+                // The test items that belong to a test runner, here the test items should be in the same workspace folder.
+                const workspaceFolder: WorkspaceFolder | undefined = workspace.getWorkspaceFolder(Uri.parse(tests[0].location.uri));
+                const config: IExecutionConfig | undefined = await loadRunConfig(workspaceFolder);
+                if (!config) {
+                    logger.info('Test job is canceled.\n');
+                    continue;
+                }
+                pendingRuns.push({ runner, context, launchId, config });
+            }
 
-                await runner.setup(runnerContext);
-                let resolvedConfiguration: DebugConfiguration | undefined = launchConfiguration;
+            let launchArguments: IJUnitLaunchArgumentsResult[] = [];
+            if (!launchConfiguration && pendingRuns.length > 0) {
+                if (progressReporter?.isCancelled()) {
+                    progressReporter = progressProvider?.createProgressReporter(runnerContext.isDebug ? 'Debug Test' : 'Run Test', ProgressLocation.Notification, true);
+                }
+                progressReporter?.report('Resolving launch configuration...');
+                launchArguments = await resolveLaunchArguments(pendingRuns);
+            }
+
+            // The runs of different projects overlap, the TestNG runners share the session server of the client.
+            // A run which fails to start or to finish is reported on its own, the others keep running until they finish,
+            // so that the runners are not cleaned up while in flight.
+            const runs: Array<Promise<Set<string>>> = [];
+            for (let i: number = 0; i < pendingRuns.length; i++) {
+                const { runner, context, launchId }: IPendingRun = pendingRuns[i];
+                const resolvedConfiguration: DebugConfiguration | undefined = launchConfiguration || await this.resolveRunConfiguration(pendingRuns[i], launchArguments[i]);
                 if (!resolvedConfiguration) {
-                    // The test items that belong to a test runner, here the test items should be in the same workspace folder.
-                    const workspaceFolder: WorkspaceFolder | undefined = workspace.getWorkspaceFolder(Uri.parse(tests[0].location.uri));
-                    const config: IExecutionConfig | undefined = await loadRunConfig(workspaceFolder);
-                    if (!config) {
-                        logger.info('Test job is canceled.\n');
-                        continue;
-                    }
-                    if (progressReporter?.isCancelled()) {
-                        progressReporter = progressProvider?.createProgressReporter(runnerContext.isDebug ? 'Debug Test' : 'Run Test', ProgressLocation.Notification, true);
-                    }
-                    progressReporter?.report('Resolving launch configuration...');
-                    resolvedConfiguration = await resolveLaunchConfigurationForRunner(runner, runnerContext, config);
+                    continue;
+                }
+                const run: Promise<Set<string>> = this.runAndRecordResults(runner, context, launchId, resolvedConfiguration, progressReporter)
+                    .catch((error: Error) => {
+                        this.reportRunError(error);
+                        return new Set<string>();
+                    });
+                if (runnerContext.isDebug) {
+                    // Debug one session at a time
+                    allIds = new Set([...allIds, ...await run]);
+                } else {
+                    runs.push(run);
                 }
-                const ids: Set<string> = await runner.run(resolvedConfiguration, progressReporter);
+            }
+            for (const ids of await Promise.all(runs)) {
                 allIds = new Set([...allIds, ...ids]);
             }
             const finalResults: ITestResult[] = testResultManager.getResultsByIds(Array.from(allIds));
@@ -96,29 +187,84 @@ class RunnerScheduler {
         }
     }
 
-    public getExecutionCache(): IExecutionCache | undefined {
-        return this._executionCache;
+    /**
+     * @returns the launch configuration of the run, or undefined if it failed to resolve, the error is reported
+     */
+    private async resolveRunConfiguration(pendingRun: IPendingRun, result: IJUnitLaunchArgumentsResult): Promise<DebugConfiguration | undefined> {
+        try {
+            if (!result.launchArguments) {
+                throw new Error(result.errorMessage || 'Failed to parse the JUnit launch arguments');
+            }
+            return await resolveLaunchConfigurationForRunner(pendingRun.runner, pendingRun.context, pendingRun.config, result.launchArguments);
+        } catch (error) {
+            this.reportRunError(error);
+            return undefined;
+        }
     }
 
-    public async cleanUp(isCancel: boolean): Promise<void> {
+    private reportRunError(error: Error): void {
+        logger.error(error.toString());
+        uiUtils.showError(error);
+    }
+
+    private async runAndRecordResults(runner: BaseRunner, runnerContext: IRunnerContext, launchId: string, launchConfiguration: DebugConfiguration,
+                                      progressReporter?: IProgressReporter): Promise<Set<string>> {
+        let ids: Set<string> = new Set<string>();
         try {
-            const promises: Array<Promise<void>> = [];
-            if (this._runnerMap) {
-                for (const runner of this._runnerMap.keys()) {
-                    promises.push(runner.tearDown());
-                }
-                this._runnerMap.clear();
-                this._runnerMap = undefined;
+            ids = await runner.run(launchConfiguration, progressReporter);
+        } finally {
+            // A run which fails reports no result, so that the server drops the fingerprints of the launch
+            if (getSkipUnchangedPassedTestsSetting() && runnerContext.kind !== TestKind.TestNG) {
+                await this.recordResults(runnerContext, launchId, ids);
             }
-            await Promise.all(promises);
+        }
+        return ids;
+    }
 
-            if (isCancel) {
-                logger.info('Test job is canceled.\n');
-            }
+    private async recordResults(runnerContext: IRunnerContext, launchId: string, ids: Set<string>): Promise<void> {
+        const results: Array<{ fullName: string, passed: boolean }> = testResultManager.getResultsByIds(Array.from(ids)).map((result: ITestResult) => {
+            return {
+                fullName: result.id.substring(result.id.indexOf('@') + 1),
+                passed: result.status === TestStatus.Pass,
+            };
+        });
+        try {
+            await recordTestResults(runnerContext.projectName, runnerContext.kind, launchId, results);
         } catch (error) {
-            logger.error('Failed to clean up', error);
+            logger.error('Failed to record the test results', error);
         }
-        this._isRunning = false;
+    }
+
+    private async resolveRerunArguments(pendingRuns: IPendingRun[]): Promise<IJUnitLaunchArgumentsResult[]> {
+        return await Promise.all(pendingRuns.map(async (pendingRun: IPendingRun): Promise<IJUnitLaunchArgumentsResult> => {
+            const failedTests: string[] = pendingRun.context.tests.map((test: ITestItem) => test.fullName);
+            try {
+                return {
+                    launchArguments: await resolveRerunFailuresArguments(pendingRun.context.projectName, pendingRun.context.kind, failedTests),
+                };
+            } catch (error) {
+                return { errorMessage: error.message };
+            }
+        }));
+    }
+
+    private getFailedTests(): ITestItem[] {
+        const failedTests: ITestItem[] = [];
+        if (!this._executionCache || !this._executionCache.results) {
+            return failedTests;
+        }
+        for (const result of this._executionCache.results) {
+            if (result.status !== TestStatus.Fail) {
+                continue;
+            }
+            const test: ITestItem | undefined = testItemModel.getItemById(result.id);
+            if (test) {
+                failedTests.push(test);
+            } else {
+                logger.verbose(`Cannot find the failed test to rerun: ${result.id}\n`);
+            }
+        }
+        return failedTests;
     }
 
     private classifyTestsByKind(tests: ITestItem[]): Map<BaseRunner, ITestItem[]> {
@@ -214,4 +360,11 @@ export interface IExecutionCache {
     results?: ITestResult[];
 }
 
+interface IPendingRun {
+    runner: BaseRunner;
+    context: IRunnerContext;
+    launchId: string;
+    config?: IExecutionConfig;
+}
+
 export const runnerScheduler: RunnerScheduler = new RunnerScheduler();
@@ -1,23 +1,138 @@
 // Copyright (c) Microsoft Corporation. All rights reserved.
 // Licensed under the MIT license.
 
+import * as fse from 'fs-extra';
+import * as os from 'os';
+import * as path from 'path';
+import { DebugConfiguration, Disposable } from 'vscode';
 import { logger } from '../../logger/logger';
+import { IExecutionConfig } from '../../runConfigs';
+import { testResultManager } from '../../testResultManager';
+import { readTestJournal } from '../../utils/commandUtils';
+import { randomSequence } from '../../utils/configUtils';
+import { getJournalEnabledSetting } from '../../utils/settingUtils';
 import { BaseRunner } from '../baseRunner/BaseRunner';
 import { BaseRunnerResultAnalyzer } from '../baseRunner/BaseRunnerResultAnalyzer';
+import { IRunnerContext, ITestJournalContent, ITestResult, TestStatus } from '../models';
 import { TestNGRunnerResultAnalyzer } from './TestNGRunnerResultAnalyzer';
+import { testSessionServer } from './testSessionServer';
+
+// Selectors longer than this are passed through a file, to stay below the command line length limits.
+const MAX_INLINE_SELECTORS_LENGTH: number = 8 * 1024;
 
 export class TestNGRunner extends BaseRunner {
+    private selectorsFile: string | undefined;
+    private journalFile: string | undefined;
+    private unixSocketPath: string | undefined;
+    private sessionId: string | undefined;
+    private sessionRegistration: Disposable | undefined;
 
-    public getRunnerCommandParams(): string[] {
-        return ['testng', ...this.testIds.map((id: string) => {
-            // parse to fullName
-            const index: number = id.indexOf('@');
-            if (index < 0) {
-                logger.error(`Invalid ID: ${id}`);
-                return '';
+    public async setup(context: IRunnerContext): Promise<void> {
+        await super.setup(context);
+        if (getJournalEnabledSetting()) {
+            this.journalFile = path.join(os.tmpdir(), `java-test-journal-${randomSequence()}.bin`);
+        }
+        const selectors: string[] = this.getSelectors();
+        if (selectors.join(' ').length > MAX_INLINE_SELECTORS_LENGTH) {
+            this.selectorsFile = path.join(os.tmpdir(), `java-test-selectors-${randomSequence()}.txt`);
+            await fse.writeFile(this.selectorsFile, selectors.join(os.EOL), 'utf8');
+        }
+    }
+
+    public async tearDown(): Promise<void> {
+        await super.tearDown();
+        if (this.sessionRegistration) {
+            this.sessionRegistration.dispose();
+            this.sessionRegistration = undefined;
+        }
+        if (this.selectorsFile) {
+            try {
+                await fse.remove(this.selectorsFile);
+            } catch (error) {
+                logger.error('Failed to remove the selectors file', error);
             }
-            return id.slice(index + 1);
-        }).filter(Boolean)];
+            this.selectorsFile = undefined;
+        }
+        if (this.journalFile) {
+            // The run is canceled, no need to recover the results
+            try {
+                await fse.remove(this.journalFile);
+            } catch (error) {
+                logger.error('Failed to remove the test journal', error);
+            }
+            this.journalFile = undefined;
+        }
+    }
+
+    public getRunnerCommandParams(_config?: IExecutionConfig, selectors?: string[]): string[] {
+        const params: string[] = ['testng'];
+        if (this.sessionId) {
+            params.push('--session', this.sessionId);
+        }
+        if (this.unixSocketPath) {
+            // The runner falls back to the TCP port if the JVM doesn't support Unix domain sockets (JDK 16+)
+            params.push('--unix-socket', this.unixSocketPath);
+        }
+        if (this.journalFile) {
+            params.push('--journal', this.journalFile);
+        }
+        if (selectors) {
+            // The runner treats a selector ending with '.xml' as a suite file
+            return [...params, ...selectors];
+        }
+        if (this.selectorsFile) {
+            return [...params, '--selectors-file', this.selectorsFile];
+        }
+        return [...params, ...this.getSelectors()];
+    }
+
+    public get serverPort(): number {
+        return testSessionServer.port;
+    }
+
+    /**
+     * The runners share the listener of the session server instead of starting one for each run.
+     */
+    protected async startSocketServer(): Promise<void> {
+        await testSessionServer.start();
+        this.sessionId = testSessionServer.createSessionId();
+        this.unixSocketPath = testSessionServer.unixSocketPath;
+    }
+
+    protected listen(launchConfiguration: DebugConfiguration, onData: (data: string) => void): void {
+        if (this.sessionId) {
+            this.sessionRegistration = testSessionServer.register(this.sessionId, onData, launchConfiguration.encoding || 'utf8');
+        }
+    }
+
+    /**
+     * The runner writes every message into the journal before sending it, replay the messages missed when the
+     * test JVM crashed. The journal is only read if the runner didn't close normally or some messages are missing.
+     */
+    protected async recoverMissedResults(): Promise<void> {
+        const journalFile: string | undefined = this.journalFile;
+        this.journalFile = undefined;
+        if (!journalFile || !await fse.pathExists(journalFile)) {
+            return;
+        }
+        if (!this.testResultAnalyzer.hasMissedMessages) {
+            await fse.remove(journalFile);
+            return;
+        }
+        try {
+            const content: ITestJournalContent | undefined = await readTestJournal(journalFile, this.testResultAnalyzer.receivedMessageCount);
+            if (content && content.messages.length > 0) {
+                logger.info(`Recovered ${content.messages.length} message(s) from the test journal.`);
+                this.testResultAnalyzer.analyzeData(content.messages.join(os.EOL));
+            }
+            if (content && !content.closed) {
+                this.failRunningTests();
+            }
+        } catch (error) {
+            logger.error('Failed to read the test journal', error);
+        } finally {
+            await fse.remove(journalFile);
+        }
     }
 
     protected get testResultAnalyzer(): BaseRunnerResultAnalyzer {
@@ -26,4 +141,30 @@ export class TestNGRunner extends BaseRunner {
         }
         return this.runnerResultAnalyzer;
     }
+
+    /**
+     * The tests started but not finished when the test JVM crashed.
+     */
+    private failRunningTests(): void {
+        for (const id of this.testIds) {
+            const result: ITestResult | undefined = testResultManager.getResultById(id);
+            if (result && result.status === TestStatus.Running) {
+                result.status = TestStatus.Fail;
+                result.message = 'The test JVM exited unexpectedly while running the test.';
+                testResultManager.storeResult(result);
+            }
+        }
+    }
+
+    private getSelectors(): string[] {
+        return this.testIds.map((id: string) => {
+            // parse to fullName
+            const index: number = id.indexOf('@');
+            if (index < 0) {
+                logger.error(`Invalid ID: ${id}`);
+                return '';
+            }
+            return id.slice(index + 1);
+        }).filter(Boolean);
+    }
 }
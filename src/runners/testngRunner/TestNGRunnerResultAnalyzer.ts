@@ -3,11 +3,13 @@
 
 import { testResultManager } from '../../testResultManager';
 import { BaseRunnerResultAnalyzer } from '../baseRunner/BaseRunnerResultAnalyzer';
-import { ITestOutputData, ITestResult, TestStatus } from '../models';
+import { ITestMetrics, ITestOutputData, ITestResult, TestStatus } from '../models';
 
 const TEST_START: string = 'testStarted';
 const TEST_FAIL: string = 'testFailed';
 const TEST_FINISH: string = 'testFinished';
+const TEST_PROFILE: string = 'testProfile';
+const RUNNER_CLOSED: string = 'runnerClosed';
 
 export class TestNGRunnerResultAnalyzer extends BaseRunnerResultAnalyzer {
 
@@ -31,6 +33,7 @@ export class TestNGRunnerResultAnalyzer extends BaseRunnerResultAnalyzer {
                 failedResult.status = TestStatus.Fail;
                 failedResult.message = outputData.attributes.message;
                 failedResult.trace = outputData.attributes.trace;
+                failedResult.metrics = parseMetrics(outputData.attributes);
                 testResultManager.storeResult(failedResult);
                 break;
             case TEST_FINISH:
@@ -42,12 +45,42 @@ export class TestNGRunnerResultAnalyzer extends BaseRunnerResultAnalyzer {
                     finishedResult.status = TestStatus.Pass;
                 }
                 finishedResult.duration = Number.parseInt(outputData.attributes.duration, 10);
+                finishedResult.metrics = parseMetrics(outputData.attributes);
                 testResultManager.storeResult(finishedResult);
                 break;
+            case TEST_PROFILE:
+                const profiledResult: ITestResult | undefined = testResultManager.getResultById(id);
+                if (!profiledResult) {
+                    return;
+                }
+                profiledResult.profile = {
+                    hotMethods: (outputData.attributes.hotMethods || '').split('\n').filter(Boolean),
+                    allocationSites: (outputData.attributes.allocationSites || '').split('\n').filter(Boolean),
+                };
+                testResultManager.storeResult(profiledResult);
+                break;
+            case RUNNER_CLOSED:
+                this.sentMessageCount = Number.parseInt(outputData.attributes.messageCount || '0', 10);
+                break;
         }
     }
 }
 
+function parseMetrics(attributes: ITestNGAttributes): ITestMetrics | undefined {
+    if (attributes.gcCount === undefined) {
+        return undefined;
+    }
+    const toNumber: (value: string | undefined) => number | undefined = (value: string | undefined) => {
+        return value === undefined ? undefined : Number.parseInt(value, 10);
+    };
+    return {
+        cpuTime: toNumber(attributes.cpuTime),
+        allocatedBytes: toNumber(attributes.allocatedBytes),
+        gcCount: toNumber(attributes.gcCount),
+        gcTime: toNumber(attributes.gcTime),
+    };
+}
+
 interface ITestNGOutputData extends ITestOutputData {
     attributes: ITestNGAttributes;
 }
@@ -58,4 +91,11 @@ interface ITestNGAttributes  {
     location: string;
     message: string;
     trace: string;
+    cpuTime?: string;
+    allocatedBytes?: string;
+    gcCount?: string;
+    gcTime?: string;
+    hotMethods?: string;
+    allocationSites?: string;
+    messageCount?: string;
 }
@@ -0,0 +1,167 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT license.
+
+import * as fse from 'fs-extra';
+import { default as getPort } from 'get-port';
+import * as iconv from 'iconv-lite';
+import { AddressInfo, createServer, Server, Socket } from 'net';
+import * as os from 'os';
+import * as path from 'path';
+import { Disposable } from 'vscode';
+import { LOCAL_HOST } from '../../constants/configs';
+import { logger } from '../../logger/logger';
+import { randomSequence } from '../../utils/configUtils';
+
+export type SessionDataHandler = (data: string) => void;
+
+interface ISessionRegistration {
+    handler: SessionDataHandler;
+    encoding: string;
+}
+
+const LINE_FEED: number = 0x0A;
+
+/**
+ * A listener shared by the runner processes. The runner tags every message with the session passed by
+ * '--session', the messages are dispatched to the handler registered for the session, so that the runs of
+ * several projects can overlap.
+ */
+class TestSessionServer implements Disposable {
+    private readonly regex: RegExp = /@@<TestRunner-({[\s\S]*?})-TestRunner>/;
+    private tcpServer: Server | undefined;
+    private unixSocketServer: Server | undefined;
+    private unixSocketFile: string | undefined;
+    private starting: Promise<void> | undefined;
+    private registrations: Map<string, ISessionRegistration> = new Map<string, ISessionRegistration>();
+
+    public async start(): Promise<void> {
+        if (!this.starting) {
+            this.starting = this.listen().catch((error: Error) => {
+                this.starting = undefined;
+                throw error;
+            });
+        }
+        return this.starting;
+    }
+
+    public get port(): number {
+        if (!this.tcpServer) {
+            throw new Error('The socket server is not started yet.');
+        }
+        return (this.tcpServer.address() as AddressInfo).port;
+    }
+
+    /**
+     * The Unix domain socket the runner connects to if its JVM supports it, undefined on Windows.
+     */
+    public get unixSocketPath(): string | undefined {
+        return this.unixSocketFile;
+    }
+
+    public createSessionId(): string {
+        return randomSequence();
+    }
+
+    /**
+     * The messages of the session are decoded with the encoding of its launch configuration.
+     */
+    public register(sessionId: string, handler: SessionDataHandler, encoding: string = 'utf8'): Disposable {
+        this.registrations.set(sessionId, { handler, encoding });
+        return new Disposable(() => {
+            this.registrations.delete(sessionId);
+        });
+    }
+
+    public dispose(): void {
+        this.registrations.clear();
+        for (const server of [this.tcpServer, this.unixSocketServer]) {
+            if (server) {
+                server.removeAllListeners();
+                server.close();
+            }
+        }
+        this.tcpServer = undefined;
+        this.unixSocketServer = undefined;
+        this.unixSocketFile = undefined;
+        this.starting = undefined;
+    }
+
+    private async listen(): Promise<void> {
+        const tcpServer: Server = createServer((socket: Socket) => this.onConnection(socket));
+        const socketPort: number = await getPort();
+        await new Promise<void>((resolve: () => void): void => {
+            tcpServer.listen(socketPort, LOCAL_HOST, resolve);
+        });
+        this.tcpServer = tcpServer;
+
+        if (os.platform() === 'win32') {
+            // Node.js listens on named pipes instead of AF_UNIX sockets on Windows
+            return;
+        }
+        const socketFile: string = path.join(os.tmpdir(), `java-test-${randomSequence()}.sock`);
+        const unixSocketServer: Server = createServer((socket: Socket) => this.onConnection(socket));
+        try {
+            await fse.remove(socketFile);
+            await new Promise<void>((resolve: () => void, reject: (error: Error) => void): void => {
+                unixSocketServer.once('error', reject);
+                unixSocketServer.listen(socketFile, resolve);
+            });
+            this.unixSocketServer = unixSocketServer;
+            this.unixSocketFile = socketFile;
+        } catch (error) {
+            logger.verbose(`Failed to listen on the Unix domain socket, fall back to TCP: ${error}`);
+        }
+    }
+
+    /**
+     * The bytes are split into lines before they are decoded, so that a multibyte character sent across two chunks
+     * is decoded as a whole. The line feed byte never occurs inside a multibyte character of the encodings the JVM
+     * writes the messages with.
+     */
+    private onConnection(socket: Socket): void {
+        let pending: Buffer = Buffer.alloc(0);
+        // The session of the connection, for the messages which are not tagged
+        let connectionSession: string | undefined;
+        socket.on('data', (buffer: Buffer) => {
+            pending = pending.length > 0 ? Buffer.concat([pending, buffer]) : buffer;
+            let start: number = 0;
+            let end: number = pending.indexOf(LINE_FEED, start);
+            while (end >= 0) {
+                const bytes: Buffer = pending.slice(start, end);
+                start = end + 1;
+                end = pending.indexOf(LINE_FEED, start);
+                if (bytes.length === 0) {
+                    continue;
+                }
+                // The session tag is ASCII, it can be read before the encoding of the session is known
+                const session: string | undefined = this.getSession(bytes.toString('latin1')) || connectionSession;
+                connectionSession = session;
+                const registration: ISessionRegistration | undefined = session ? this.registrations.get(session) : undefined;
+                if (registration) {
+                    const line: string = iconv.decode(bytes, registration.encoding).replace(/\r$/, '');
+                    registration.handler(line + os.EOL);
+                } else {
+                    logger.verbose(`Discard the message of an unknown test session: ${bytes.toString('utf8')}\n`);
+                }
+            }
+            pending = pending.slice(start);
+        });
+        socket.on('error', (error: Error) => {
+            logger.error('Test runner connection error', error);
+        });
+    }
+
+    private getSession(line: string): string | undefined {
+        const match: RegExpExecArray | null = this.regex.exec(line);
+        if (!match) {
+            return undefined;
+        }
+        try {
+            return JSON.parse(match[1]).session;
+        } catch (error) {
+            return undefined;
+        }
+    }
+}
+
+export const testSessionServer: TestSessionServer = new TestSessionServer();
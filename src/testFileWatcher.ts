@@ -15,6 +15,7 @@ import { getTestSourcePaths } from './utils/commandUtils';
 class TestFileWatcher implements Disposable {
 
     private patterns: RelativePattern[] = [];
+    private sourcePaths: string[] = [];
     private disposables: Disposable[] = [];
     private registerListenersDebounce: (() => Promise<void>) & _.Cancelable = _.debounce(this.registerListenersInternal, 2 * 1000 /*ms*/);
 
@@ -34,16 +35,22 @@ class TestFileWatcher implements Disposable {
         }
         this.disposables = [];
         this.patterns = [];
+        this.sourcePaths = [];
     }
 
     protected async registerListenersInternal(): Promise<void> {
         if (!isStandardServerReady()) {
             return;
         }
-        this.dispose();
         if (workspace.workspaceFolders) {
             try {
                 const sourcePaths: string[] = await getTestSourcePaths(workspace.workspaceFolders.map((workspaceFolder: WorkspaceFolder) => workspaceFolder.uri.toString()));
+                if (this.disposables.length > 0 && _.isEqual(sourcePaths, this.sourcePaths)) {
+                    // the watchers are still valid
+                    return;
+                }
+                this.dispose();
+                this.sourcePaths = sourcePaths;
                 for (const sourcePath of sourcePaths) {
                     const normalizedPath: string = Uri.file(sourcePath).fsPath;
                     const pattern: RelativePattern = new RelativePattern(normalizedPath, '**/*.java');
@@ -54,6 +61,7 @@ class TestFileWatcher implements Disposable {
                 }
             } catch (error) {
                 logger.error('Failed to get the test paths', error);
+                this.dispose();
                 const watcher: FileSystemWatcher = workspace.createFileSystemWatcher('**/*.java');
                 this.registerWatcherListeners(watcher);
                 this.disposables.push(watcher);
@@ -2,14 +2,17 @@
 // Licensed under the MIT license.
 
 import { CancellationToken, Disposable, Uri } from 'vscode';
-import { ISearchTestItemParams, ITestItem, TestLevel } from './protocols';
-import { searchTestCodeLens, searchTestItems, searchTestItemsAll } from './utils/commandUtils';
-import { constructSearchTestItemParams } from './utils/protocolUtils';
+import { ILocation, ISearchTestItemParams, ITestItem, TestLevel } from './protocols';
+import { searchTestCodeLens, searchTestItems, searchTestItemsAll, searchTestLocation } from './utils/commandUtils';
+import { constructSearchTestItemParams, hasRange } from './utils/protocolUtils';
+
+const PACKAGE_CHILDREN_PAGE_SIZE: number = 200;
 
 class TestItemModel implements Disposable {
 
     private store: Map<string, ITestItem> = new Map<string, ITestItem>();
     private idMappedByFsPath: Map<string, Set<string>> = new Map<string, Set<string>>();
+    private packagePaging: Map<string, IPackagePaging> = new Map<string, IPackagePaging>();
 
     public getItemById(id: string): ITestItem | undefined {
         return this.store.get(id);
@@ -17,12 +20,48 @@ class TestItemModel implements Disposable {
 
     public async getNodeChildren(parent: ITestItem): Promise<ITestItem[]> {
         const searchParams: ISearchTestItemParams = constructSearchTestItemParams(parent.level, parent.fullName, parent.location.uri);
-        const childrenNodes: ITestItem[] = await searchTestItems(searchParams);
+        let childrenNodes: ITestItem[];
+        if (parent.level === TestLevel.Package) {
+            childrenNodes = await this.searchPackageChildren(parent, searchParams);
+        } else {
+            childrenNodes = await searchTestItems(searchParams);
+        }
         parent.children = childrenNodes.map((child: ITestItem) => child.id);
         this.save([parent]);
         return this.save(childrenNodes);
     }
 
+    public hasMorePackageChildren(parent: ITestItem): boolean {
+        const paging: IPackagePaging | undefined = this.packagePaging.get(parent.id);
+        return !!paging && paging.hasMore;
+    }
+
+    /**
+     * The next page of the package is searched when the children of the package are requested again.
+     */
+    public requestMorePackageChildren(parent: ITestItem): void {
+        const paging: IPackagePaging | undefined = this.packagePaging.get(parent.id);
+        if (paging) {
+            paging.loadingMore = true;
+        }
+    }
+
+    /**
+     * Resolve the range of a class searched without its range.
+     */
+    public async resolveRange(item: ITestItem): Promise<void> {
+        if (item.level !== TestLevel.Class || hasRange(item)) {
+            return;
+        }
+        const fsPath: string = Uri.parse(item.location.uri).fsPath;
+        const locations: ILocation[] = await searchTestLocation(`${item.fullName}#<TestError>`);
+        const location: ILocation | undefined = locations.find((candidate: ILocation) => Uri.parse(candidate.uri).fsPath === fsPath);
+        if (location) {
+            item.location = location;
+            this.save([item]);
+        }
+    }
+
     public async getAllNodes(level: TestLevel, fullName: string, uri: string, isHierarchicalPackage: boolean | undefined, token: CancellationToken): Promise<ITestItem[]> {
         const searchParam: ISearchTestItemParams = constructSearchTestItemParams(level, fullName, uri);
         const tests: ITestItem[] = await searchTestItemsAll({
@@ -66,6 +105,30 @@ class TestItemModel implements Disposable {
     public dispose(): void {
         this.store.clear();
         this.idMappedByFsPath.clear();
+        this.packagePaging.clear();
+    }
+
+    /**
+     * Search the classes of a package in bounded pages, a new expansion only searches the first page and the next
+     * pages are searched on demand. The ranges of the classes are not resolved, they are resolved when the classes
+     * are opened, or updated when the Code Lenses of the files are resolved.
+     */
+    private async searchPackageChildren(parent: ITestItem, searchParams: ISearchTestItemParams): Promise<ITestItem[]> {
+        const paging: IPackagePaging | undefined = this.packagePaging.get(parent.id);
+        const loadedChildren: ITestItem[] = paging && paging.loadingMore ? paging.children : [];
+        const page: ITestItem[] = await searchTestItems({
+            ...searchParams,
+            offset: loadedChildren.length,
+            limit: PACKAGE_CHILDREN_PAGE_SIZE,
+            omitRange: true,
+        });
+        const childrenNodes: ITestItem[] = [...loadedChildren, ...page];
+        this.packagePaging.set(parent.id, {
+            children: childrenNodes,
+            hasMore: page.length >= PACKAGE_CHILDREN_PAGE_SIZE,
+            loadingMore: false,
+        });
+        return childrenNodes;
     }
 
     private save(items: ITestItem[]): ITestItem[] {
@@ -80,7 +143,12 @@ class TestItemModel implements Disposable {
 
             let storedItem: ITestItem | undefined = this.store.get(item.id);
             if (storedItem) {
+                const location: ILocation = storedItem.location;
                 storedItem = Object.assign(storedItem, item);
+                if (!hasRange(item)) {
+                    // keep the resolved range
+                    storedItem.location = location;
+                }
             } else {
                 storedItem = Object.assign({}, item);
             }
@@ -103,4 +171,11 @@ class TestItemModel implements Disposable {
     }
 }
 
+interface IPackagePaging {
+    children: ITestItem[];
+    hasMore: boolean;
+    // if the next page is requested
+    loadingMore: boolean;
+}
+
 export const testItemModel: TestItemModel = new TestItemModel();
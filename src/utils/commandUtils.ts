@@ -1,11 +1,12 @@
 // Copyright (c) Microsoft Corporation. All rights reserved.
 // Licensed under the MIT license.
 
-import { CancellationToken, commands, Position } from 'vscode';
+import { CancellationToken, commands } from 'vscode';
 import { JavaLanguageServerCommands, JavaTestRunnerDelegateCommands } from '../constants/commands';
 import { logger } from '../logger/logger';
-import { ILocation, ISearchTestItemParams, ITestItem, TestKind, TestLevel } from '../protocols';
-import { IJUnitLaunchArguments } from '../runners/baseRunner/BaseRunner';
+import { ILocation, ISearchTestItemParams, ITestItem, TestKind } from '../protocols';
+import { IJUnitLaunchArguments, IJUnitLaunchArgumentsRequest, IJUnitLaunchArgumentsResult } from '../runners/baseRunner/BaseRunner';
+import { ITestJournalContent } from '../runners/models';
 
 export async function getTestSourcePaths(uri: string[]): Promise<string[]> {
     return await executeJavaLanguageServerCommand<string[]>(
@@ -41,29 +42,73 @@ export async function resolveStackTraceLocation(trace: string, projectNames: str
         JavaLanguageServerCommands.RESOLVE_STACKTRACE_LOCATION, trace, projectNames) || '';
 }
 
-export async function resolveJUnitLaunchArguments(uri: string, classFullName: string, testName: string, project: string,
-                                                  scope: TestLevel, testKind: TestKind, start?: Position, end?: Position,
-                                                  isHierarchicalPackage?: boolean): Promise<IJUnitLaunchArguments> {
+export async function resolveJUnitLaunchArguments(request: IJUnitLaunchArgumentsRequest): Promise<IJUnitLaunchArguments> {
     const argument: IJUnitLaunchArguments | undefined = await executeJavaLanguageServerCommand<IJUnitLaunchArguments>(
-        JavaTestRunnerDelegateCommands.RESOLVE_JUNIT_ARGUMENT, JSON.stringify({
-            uri,
-            classFullName,
-            testName,
+        JavaTestRunnerDelegateCommands.RESOLVE_JUNIT_ARGUMENT, JSON.stringify(request));
+
+    if (!argument) {
+        throw new Error('Failed to parse the JUnit launch arguments');
+    }
+
+    return argument;
+}
+
+export async function resolveJUnitLaunchArgumentsInBatch(requests: IJUnitLaunchArgumentsRequest[]): Promise<IJUnitLaunchArgumentsResult[]> {
+    const results: IJUnitLaunchArgumentsResult[] | undefined = await executeJavaLanguageServerCommand<IJUnitLaunchArgumentsResult[]>(
+        JavaTestRunnerDelegateCommands.RESOLVE_JUNIT_ARGUMENTS, JSON.stringify(requests));
+
+    if (!results || results.length !== requests.length) {
+        throw new Error('Failed to parse the JUnit launch arguments');
+    }
+
+    return results;
+}
+
+/**
+ * Resolve the launch arguments to rerun the failed tests, from the arguments resolved for the last launch of the project.
+ * The failed tests are the full names of the tests, for TestNG the program arguments contain a `testng-failed.xml` suite file.
+ */
+export async function resolveRerunFailuresArguments(project: string, testKind: TestKind, failedTests: string[]): Promise<IJUnitLaunchArguments> {
+    const argument: IJUnitLaunchArguments | undefined = await executeJavaLanguageServerCommand<IJUnitLaunchArguments>(
+        JavaTestRunnerDelegateCommands.RESOLVE_RERUN_FAILURES_ARGUMENT, JSON.stringify({
             project,
-            scope,
             testKind,
-            start,
-            end,
-            isHierarchicalPackage,
+            failedTests,
         }));
 
     if (!argument) {
-        throw new Error('Failed to parse the JUnit launch arguments');
+        throw new Error('Failed to resolve the launch arguments to rerun the failed tests');
     }
 
     return argument;
 }
 
+/**
+ * Record the results of a launch of the project, the test classes whose tests all passed are skipped in the next
+ * launches until their bytecode, their dependencies or the classpath change.
+ * @param launchId the id passed when the launch arguments were resolved
+ */
+export async function recordTestResults(project: string, testKind: TestKind, launchId: string, results: Array<{ fullName: string, passed: boolean }>): Promise<void> {
+    await executeJavaLanguageServerCommand<void>(
+        JavaTestRunnerDelegateCommands.RECORD_TEST_RESULTS, JSON.stringify({
+            project,
+            testKind,
+            launchId,
+            results,
+        }));
+}
+
+/**
+ * Read the messages written into the journal of the test runner, skipping the ones already received.
+ */
+export async function readTestJournal(path: string, skip: number): Promise<ITestJournalContent | undefined> {
+    return await executeJavaLanguageServerCommand<ITestJournalContent>(
+        JavaTestRunnerDelegateCommands.READ_TEST_JOURNAL, JSON.stringify({
+            path,
+            skip,
+        }));
+}
+
 async function executeJavaLanguageServerCommand<T>(...rest: any[]): Promise<T | undefined> {
     try {
         return await commands.executeCommand<T>(JavaLanguageServerCommands.EXECUTE_WORKSPACE_COMMAND, ...rest);
@@ -5,24 +5,31 @@ import { DebugConfiguration, Position } from 'vscode';
 import { TestKind, TestLevel } from '../protocols';
 import { IExecutionConfig } from '../runConfigs';
 import { BaseRunner } from '../runners/baseRunner/BaseRunner';
-import { IJUnitLaunchArguments } from '../runners/baseRunner/BaseRunner';
+import { IJUnitLaunchArguments, IJUnitLaunchArgumentsRequest } from '../runners/baseRunner/BaseRunner';
 import { IRunnerContext } from '../runners/models';
 import { resolveJUnitLaunchArguments } from './commandUtils';
 import { randomSequence } from './configUtils';
+import { getSkipUnchangedPassedTestsSetting } from './settingUtils';
+
+/**
+ * @param launchArguments the launch arguments resolved in advance, e.g. in a batch with the other runners
+ */
+export async function resolveLaunchConfigurationForRunner(runner: BaseRunner, runnerContext: IRunnerContext, config?: IExecutionConfig,
+                                                          launchArguments?: IJUnitLaunchArguments): Promise<DebugConfiguration> {
+    if (!launchArguments) {
+        launchArguments = await resolveJUnitLaunchArguments(getLaunchArgumentsRequest(runnerContext, config));
+    }
 
-export async function resolveLaunchConfigurationForRunner(runner: BaseRunner, runnerContext: IRunnerContext, config?: IExecutionConfig): Promise<DebugConfiguration> {
     if (runnerContext.kind === TestKind.TestNG) {
-        const testNGArguments: IJUnitLaunchArguments = await getTestNGLaunchArguments(runnerContext.projectName);
-
         let env: {} = {};
         if (config && config.env) {
             env = config.env;
         }
 
         if (config && config.vmArgs) {
-            testNGArguments.vmArguments.push(...config.vmArgs.filter(Boolean));
+            launchArguments.vmArguments.push(...config.vmArgs.filter(Boolean));
         } else if (config && config.vmargs) {
-            testNGArguments.vmArguments.push(...config.vmargs.filter(Boolean));
+            launchArguments.vmArguments.push(...config.vmargs.filter(Boolean));
         }
 
         const moreEntries: {[key: string]: any} = {};
@@ -36,23 +43,23 @@ export async function resolveLaunchConfigurationForRunner(runner: BaseRunner, ru
             request: 'launch',
             mainClass: runner.runnerMainClassName,
             projectName: runnerContext.projectName,
-            cwd: config && config.workingDirectory ? config.workingDirectory : testNGArguments.workingDirectory,
-            classPaths: [...testNGArguments.classpath, await runner.runnerJarFilePath, await runner.runnerLibPath],
-            modulePaths: testNGArguments.modulepath,
-            args: runner.getApplicationArgs(config),
-            vmArgs: testNGArguments.vmArguments,
+            cwd: config && config.workingDirectory ? config.workingDirectory : launchArguments.workingDirectory,
+            classPaths: [...launchArguments.classpath, await runner.runnerJarFilePath, await runner.runnerLibPath],
+            modulePaths: launchArguments.modulepath,
+            // A rerun selects the failed tests through the suite file written by the server
+            args: runner.getApplicationArgs(config, launchArguments.testNGSuiteFile ? [launchArguments.testNGSuiteFile] : undefined),
+            vmArgs: launchArguments.vmArguments,
             env,
             noDebug: !runnerContext.isDebug,
+            __recordingFile: launchArguments.recordingFile,
             ...moreEntries,
         };
     }
 
-    return await getDebugConfigurationForEclipseRunner(runnerContext, config);
+    return getDebugConfigurationForEclipseRunner(runnerContext, launchArguments, config);
 }
 
-export async function getDebugConfigurationForEclipseRunner(runnerContext: IRunnerContext, config?: IExecutionConfig): Promise<DebugConfiguration> {
-    const junitLaunchArgs: IJUnitLaunchArguments = await getJUnitLaunchArguments(runnerContext);
-
+export function getDebugConfigurationForEclipseRunner(runnerContext: IRunnerContext, junitLaunchArgs: IJUnitLaunchArguments, config?: IExecutionConfig): DebugConfiguration {
     if (config && config.vmArgs) {
         junitLaunchArgs.vmArguments.push(...config.vmArgs.filter(Boolean));
     } else if (config && config.vmargs) {
@@ -81,11 +88,27 @@ export async function getDebugConfigurationForEclipseRunner(runnerContext: IRunn
         vmArgs: junitLaunchArgs.vmArguments,
         env,
         noDebug: !runnerContext.isDebug,
+        __cachedTests: junitLaunchArgs.cachedTests,
+        __allTestsCached: junitLaunchArgs.allTestsCached,
+        __recordingFile: junitLaunchArgs.recordingFile,
         ...moreEntries,
     };
 }
 
-async function getJUnitLaunchArguments(runnerContext: IRunnerContext): Promise<IJUnitLaunchArguments> {
+export function getLaunchArgumentsRequest(runnerContext: IRunnerContext, config?: IExecutionConfig, launchId?: string): IJUnitLaunchArgumentsRequest {
+    const profile: boolean = !!(config && config.profile);
+    if (runnerContext.kind === TestKind.TestNG) {
+        return {
+            uri: '',
+            classFullName: '',
+            testName: '',
+            project: runnerContext.projectName,
+            scope: TestLevel.Root,
+            testKind: TestKind.TestNG,
+            profile,
+        };
+    }
+
     let className: string = '';
     let methodName: string = '';
 
@@ -102,9 +125,18 @@ async function getJUnitLaunchArguments(runnerContext: IRunnerContext): Promise<I
         end = runnerContext.tests[0].location.range.end;
     }
 
-    return await resolveJUnitLaunchArguments(runnerContext.testUri, className, methodName, runnerContext.projectName, runnerContext.scope, runnerContext.kind, start, end, runnerContext.isHierarchicalPackage);
-}
-
-async function getTestNGLaunchArguments(projectName: string): Promise<IJUnitLaunchArguments> {
-    return await resolveJUnitLaunchArguments('', '', '', projectName, TestLevel.Root, TestKind.TestNG);
+    return {
+        uri: runnerContext.testUri,
+        classFullName: className,
+        testName: methodName,
+        project: runnerContext.projectName,
+        scope: runnerContext.scope,
+        testKind: runnerContext.kind,
+        start,
+        end,
+        isHierarchicalPackage: runnerContext.isHierarchicalPackage,
+        skipCachedTests: getSkipUnchangedPassedTestsSetting(),
+        profile,
+        launchId,
+    };
 }
@@ -1,7 +1,7 @@
 // Copyright (c) Microsoft Corporation. All rights reserved.
 // Licensed under the MIT license.
 
-import { ISearchTestItemParams, TestLevel } from '../protocols';
+import { ISearchTestItemParams, ITestItem, TestLevel } from '../protocols';
 
 export function constructSearchTestItemParams(level: TestLevel, fullName: string, uri: string): ISearchTestItemParams {
     if (level === TestLevel.Root) {
@@ -22,3 +22,10 @@ export function constructSearchTestItemParams(level: TestLevel, fullName: string
 export function isTestMethodName(fullName: string): boolean {
     return fullName.includes('#');
 }
+
+/**
+ * The range of a test item is empty when it's searched with `omitRange`.
+ */
+export function hasRange(item: ITestItem): boolean {
+    return !!item.location.range && !!item.location.range.start;
+}
@@ -2,7 +2,7 @@
 // Licensed under the MIT license.
 
 import { ViewColumn, workspace, WorkspaceConfiguration } from 'vscode';
-import { DEFAULT_LOG_LEVEL, DEFAULT_REPORT_POSITION, DEFAULT_REPORT_SHOW, LOG_LEVEL_SETTING_KEY, REPORT_POSITION_SETTING_KEY, REPORT_SHOW_SETTING_KEY } from '../constants/configs';
+import { DEFAULT_LOG_LEVEL, DEFAULT_REPORT_POSITION, DEFAULT_REPORT_SHOW, JOURNAL_ENABLED_SETTING_KEY, LOG_LEVEL_SETTING_KEY, REPORT_POSITION_SETTING_KEY, REPORT_SHOW_SETTING_KEY, SKIP_UNCHANGED_PASSED_TESTS_SETTING_KEY } from '../constants/configs';
 
 export function getReportPosition(): ViewColumn {
     const config: WorkspaceConfiguration = workspace.getConfiguration();
@@ -17,3 +17,11 @@ export function getLogLevel(): string {
 export function getShowReportSetting(): string {
     return workspace.getConfiguration().get<string>(REPORT_SHOW_SETTING_KEY, DEFAULT_REPORT_SHOW);
 }
+
+export function getSkipUnchangedPassedTestsSetting(): boolean {
+    return workspace.getConfiguration().get<boolean>(SKIP_UNCHANGED_PASSED_TESTS_SETTING_KEY, false);
+}
+
+export function getJournalEnabledSetting(): boolean {
+    return workspace.getConfiguration().get<boolean>(JOURNAL_ENABLED_SETTING_KEY, false);
+}
@@ -0,0 +1,77 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT license.
+
+import * as assert from 'assert';
+import { extensions, Uri } from 'vscode';
+import { IJUnitLaunchArguments, IJUnitLaunchArgumentsRequest, IJUnitLaunchArgumentsResult, resolveJUnitLaunchArguments, resolveJUnitLaunchArgumentsInBatch, TestKind, TestLevel } from '../../extension.bundle';
+import { Uris } from '../shared';
+
+// The launches resolved to measure the latency, after the first one which warms up the language server
+const LATENCY_ITERATIONS: number = 20;
+
+suite('Launch Arguments Tests', function() {
+
+    suiteSetup(async function() {
+        await extensions.getExtension('vscjava.vscode-java-test')!.activate();
+    });
+
+    test("Can resolve the launch arguments of several runners in one request", async function() {
+        const results: IJUnitLaunchArgumentsResult[] = await resolveJUnitLaunchArgumentsInBatch([
+            createClassRequest('junit5', Uris.GRADLE_JUNIT5_META_ANNOTATION_TEST, 'junit5.MetaAnnotationTest'),
+            createClassRequest('junit5', Uris.GRADLE_JUNIT5_PROPERTY_TEST, 'junit5.PropertyTest'),
+        ]);
+        assert.strictEqual(results.length, 2);
+
+        // The results are in the order of the requests
+        const metaAnnotationArgs: string[] = results[0].launchArguments!.programArguments;
+        assert.ok(metaAnnotationArgs.join(' ').indexOf('junit5.MetaAnnotationTest') >= 0);
+        const propertyArgs: string[] = results[1].launchArguments!.programArguments;
+        assert.ok(propertyArgs.join(' ').indexOf('junit5.PropertyTest') >= 0);
+
+        // The launches of the same project and test kind share the classpath
+        assert.deepStrictEqual(results[0].launchArguments!.classpath, results[1].launchArguments!.classpath);
+        assert.deepStrictEqual(results[0].launchArguments!.modulepath, results[1].launchArguments!.modulepath);
+    });
+
+    test("Should report the failed request without failing the others", async function() {
+        const results: IJUnitLaunchArgumentsResult[] = await resolveJUnitLaunchArgumentsInBatch([
+            createClassRequest('not-exist', Uris.GRADLE_JUNIT5_META_ANNOTATION_TEST, 'junit5.MetaAnnotationTest'),
+            createClassRequest('junit5', Uris.GRADLE_JUNIT5_PROPERTY_TEST, 'junit5.PropertyTest'),
+        ]);
+        assert.strictEqual(results.length, 2);
+
+        assert.strictEqual(results[0].launchArguments, undefined);
+        assert.ok(results[0].errorMessage!.indexOf('not-exist') >= 0, 'Should tell which project failed');
+        assert.strictEqual(results[1].errorMessage, undefined);
+        assert.ok(results[1].launchArguments!.classpath.length > 0);
+    });
+
+    test("Measure the latency of resolving the launch arguments of a class", async function() {
+        const request: IJUnitLaunchArgumentsRequest = createClassRequest('junit5', Uris.GRADLE_JUNIT5_PROPERTY_TEST, 'junit5.PropertyTest');
+        const warmUp: IJUnitLaunchArguments = await resolveJUnitLaunchArguments(request);
+
+        const latencies: number[] = [];
+        for (let i: number = 0; i < LATENCY_ITERATIONS; i++) {
+            const start: [number, number] = process.hrtime();
+            const launchArguments: IJUnitLaunchArguments = await resolveJUnitLaunchArguments(request);
+            const [seconds, nanoseconds]: [number, number] = process.hrtime(start);
+            latencies.push(seconds * 1000 + nanoseconds / 1e6);
+            assert.deepStrictEqual(launchArguments.programArguments, warmUp.programArguments);
+        }
+
+        latencies.sort((a: number, b: number) => a - b);
+        const percentile: (p: number) => string = (p: number): string => latencies[Math.ceil(p * latencies.length) - 1].toFixed(1);
+        console.log(`Launch arguments resolved in ${percentile(0.5)} ms (median), ${percentile(0.95)} ms (p95) over ${LATENCY_ITERATIONS} runs`);
+    });
+});
+
+function createClassRequest(project: string, uri: Uri, classFullName: string): IJUnitLaunchArgumentsRequest {
+    return {
+        uri: uri.toString(),
+        classFullName,
+        testName: '',
+        project,
+        scope: TestLevel.Class,
+        testKind: TestKind.JUnit5,
+    };
+}
@@ -0,0 +1,82 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT license.
+
+import * as assert from 'assert';
+import * as path from 'path';
+import { extensions, Range, Uri } from 'vscode';
+import { ISearchTestItemParams, ITestItem, searchTestItems, TestKind, TestLevel, testItemModel } from '../../extension.bundle';
+import { Uris } from '../shared';
+
+suite('Package Paging Tests', function() {
+
+    const packageUri: string = Uri.file(path.dirname(Uris.JUNIT4_TEST.fsPath)).toString();
+    const searchParams: ISearchTestItemParams = {
+        uri: packageUri,
+        level: TestLevel.Package,
+        fullName: 'junit4',
+    };
+
+    suiteSetup(async function() {
+        await extensions.getExtension('vscjava.vscode-java-test')!.activate();
+    });
+
+    test("Can search the package children in pages", async function() {
+        const allChildren: ITestItem[] = await searchTestItems(searchParams);
+        assert.ok(allChildren.length > 3, 'The package should have more children than a page');
+
+        const pagedChildren: ITestItem[] = [];
+        let page: ITestItem[];
+        do {
+            page = await searchTestItems({
+                ...searchParams,
+                offset: pagedChildren.length,
+                limit: 3,
+                omitRange: true,
+            });
+            assert.ok(page.length <= 3, 'The page should not exceed the limit');
+            pagedChildren.push(...page);
+        } while (page.length === 3);
+
+        // The pages don't overlap and don't miss any class, even the classes which are not test candidates
+        assert.deepStrictEqual(pagedChildren.map((child: ITestItem) => child.id).sort(), allChildren.map((child: ITestItem) => child.id).sort());
+        for (const child of pagedChildren) {
+            assert.ok(!child.location.range || !child.location.range.start, 'The range should be omitted');
+        }
+    });
+
+    test("Should only search the first page of a package from the item model", async function() {
+        const allChildren: ITestItem[] = await searchTestItems(searchParams);
+        const packageItem: ITestItem = {
+            id: 'junit4@junit4',
+            displayName: 'junit4',
+            fullName: 'junit4',
+            children: undefined,
+            kind: TestKind.None,
+            project: 'junit4',
+            level: TestLevel.Package,
+            location: {
+                uri: packageUri,
+                range: new Range(0, 0, 0, 0),
+            },
+        };
+
+        // The package has less children than a page
+        const children: ITestItem[] = await testItemModel.getNodeChildren(packageItem);
+        assert.strictEqual(children.length, allChildren.length);
+        assert.deepStrictEqual(packageItem.children!.slice().sort(), allChildren.map((child: ITestItem) => child.id).sort());
+        assert.ok(!testItemModel.hasMorePackageChildren(packageItem), 'There should be no more page to load');
+    });
+
+    test("Can resolve the range of a class when it's opened", async function() {
+        const children: ITestItem[] = await searchTestItems({
+            ...searchParams,
+            omitRange: true,
+        });
+        const testItem: ITestItem = children.find((child: ITestItem) => child.fullName === 'junit4.TestAnnotation')!;
+        assert.ok(!testItem.location.range || !testItem.location.range.start, 'The range should be omitted');
+
+        await testItemModel.resolveRange(testItem);
+        assert.ok(testItem.location.range && testItem.location.range.start, 'The range should be resolved');
+        assert.ok(testItem.location.range.start.line > 0, 'The range should not be at the top of the file');
+    });
+});
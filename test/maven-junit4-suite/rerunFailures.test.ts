@@ -0,0 +1,67 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT license.
+
+import * as assert from 'assert';
+import * as fse from 'fs-extra';
+import { CodeLens, Command, commands, TextDocument, window, workspace, extensions } from 'vscode';
+import { IExecutionCache, IJUnitLaunchArguments, ITestItem, ITestResult, resolveRerunFailuresArguments, runnerScheduler, TestCodeLensProvider, TestKind, testResultManager, TestStatus } from '../../extension.bundle';
+import { Token, Uris } from '../shared';
+
+suite('Rerun Failures Tests', function() {
+
+    let projectName: string;
+
+    suiteSetup(async function() {
+        await extensions.getExtension('vscjava.vscode-java-test')!.activate();
+
+        // Run the class from its Code Lens, so that the server records the launch of the project
+        const document: TextDocument = await workspace.openTextDocument(Uris.JUNIT4_TEST);
+        await window.showTextDocument(document);
+        const codeLens: CodeLens[] = await new TestCodeLensProvider().provideCodeLenses(document, Token.cancellationToken);
+        const command: Command | undefined = codeLens[4].command;
+        const testItem: ITestItem = (command!.arguments as ITestItem[])[0];
+        projectName = testItem.project;
+        await commands.executeCommand(command!.command, testItem);
+    });
+
+    test("Can resolve the rerun arguments from the last launch", async function() {
+        const launchArguments: IJUnitLaunchArguments = await resolveRerunFailuresArguments(projectName, TestKind.JUnit, ['junit4.TestAnnotation#shouldFail']);
+        assert.strictEqual(launchArguments.projectName, projectName);
+        assert.ok(launchArguments.classpath.length > 0, 'Should reuse the classpath of the last launch');
+
+        const programArguments: string[] = launchArguments.programArguments;
+        assert.ok(programArguments.indexOf('-test') < 0, 'Should drop the tests selected in the last launch');
+        const index: number = programArguments.indexOf('-testNameFile');
+        assert.ok(index >= 0, 'Should select the failed tests with a test name file');
+        const testNames: string = await fse.readFile(programArguments[index + 1], 'utf8');
+        assert.deepStrictEqual(testNames.trim().split(/\r?\n/), ['junit4.TestAnnotation']);
+    });
+
+    test("Should reuse the test name file of the previous rerun", async function() {
+        const first: IJUnitLaunchArguments = await resolveRerunFailuresArguments(projectName, TestKind.JUnit, ['junit4.TestAnnotation#shouldFail']);
+        const second: IJUnitLaunchArguments = await resolveRerunFailuresArguments(projectName, TestKind.JUnit, ['junit4.TestAnnotation#shouldFail']);
+        const firstFile: string = first.programArguments[first.programArguments.indexOf('-testNameFile') + 1];
+        const secondFile: string = second.programArguments[second.programArguments.indexOf('-testNameFile') + 1];
+        assert.strictEqual(secondFile, firstFile);
+    });
+
+    test("Should fail to resolve the rerun arguments of a project never launched", async function() {
+        await assert.rejects(resolveRerunFailuresArguments('not-launched', TestKind.JUnit, ['junit4.TestAnnotation#shouldFail']));
+    });
+
+    test("Can rerun the failed tests of the last run", async function() {
+        await commands.executeCommand('java.test.rerunFailures');
+
+        const executionCache: IExecutionCache | undefined = runnerScheduler.getExecutionCache();
+        const tests: ITestItem[] = executionCache!.context.tests;
+        assert.strictEqual(tests.length, 1, 'Should only rerun the failed test');
+        assert.strictEqual(tests[0].fullName, 'junit4.TestAnnotation#shouldFail');
+
+        const failedDetail: ITestResult | undefined = testResultManager.getResultById(`${projectName}@junit4.TestAnnotation#shouldFail`);
+        assert.strictEqual(failedDetail!.status, TestStatus.Fail, 'Should have run the failed case again');
+    });
+
+    suiteTeardown(async function() {
+        await commands.executeCommand('workbench.action.closeActiveEditor');
+    });
+});
@@ -25,6 +25,23 @@ suite('Test File Watcher Tests', function() {
         spy.restore();
     });
 
+    test("Should keep the watchers when the test source paths are not changed", async function() {
+        await testFileWatcher.registerListeners();
+        let spy: sinon.SinonSpy = sandbox.spy(testCodeLensController, 'registerCodeLensProvider');
+        await testFileWatcher.registerListeners();
+        assert.ok(spy.notCalled, 'The code lens provider should not be registered again');
+        spy.restore();
+    });
+
+    test("Should register the watchers again when notified of the test source paths changes", async function() {
+        let spy: sinon.SinonSpy = sandbox.spy(testFileWatcher, 'registerListeners');
+        await commands.executeCommand('java.test.sourcePathsChanged');
+        assert.ok(spy.calledOnce);
+        // The notifications of the server are debounced
+        assert.strictEqual(spy.getCall(0).args[0], true);
+        spy.restore();
+    });
+
     teardown(async function() {
         await commands.executeCommand('workbench.action.closeActiveEditor');
     });
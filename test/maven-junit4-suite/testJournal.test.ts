@@ -0,0 +1,110 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT license.
+
+import * as assert from 'assert';
+import * as fse from 'fs-extra';
+import * as os from 'os';
+import * as path from 'path';
+import { ConfigurationTarget, extensions, Range, workspace } from 'vscode';
+import { IRunnerContext, ITestJournalContent, readTestJournal, TestKind, TestLevel, TestNGRunner } from '../../extension.bundle';
+import { Uris } from '../shared';
+
+// The layout written by com.microsoft.java.test.runner.common.TestJournal
+const MAGIC: number = 0x4A544A31;
+const VERSION: number = 1;
+const HEADER_SIZE: number = 64;
+const RECORD_SIZE: number = 256;
+const FLAG_CLOSED: number = 1;
+
+suite('Test Journal Tests', function() {
+
+    const journalFile: string = path.join(os.tmpdir(), 'java-test-journal-test.bin');
+
+    suiteSetup(async function() {
+        await extensions.getExtension('vscjava.vscode-java-test')!.activate();
+    });
+
+    test("Can read the messages missed by the client", async function() {
+        await writeJournal(journalFile, ['first', 'second', 'third'], true);
+
+        const content: ITestJournalContent | undefined = await readTestJournal(journalFile, 1);
+        assert.deepStrictEqual(content!.messages, ['second', 'third']);
+        assert.strictEqual(content!.closed, true);
+    });
+
+    test("Can recover the committed messages of a crashed runner", async function() {
+        // The last message is written but not committed, and the journal is not closed
+        await writeJournal(journalFile, ['first', 'x'.repeat(RECORD_SIZE), 'lost'], false, 3);
+
+        const content: ITestJournalContent | undefined = await readTestJournal(journalFile, 0);
+        assert.deepStrictEqual(content!.messages, ['first', 'x'.repeat(RECORD_SIZE)]);
+        assert.strictEqual(content!.closed, false);
+    });
+
+    test("Should only pass the journal to the runner when enabled", async function() {
+        assert.ok((await getRunnerCommandParams()).indexOf('--journal') < 0, 'The journal should be disabled by default');
+
+        await workspace.getConfiguration().update('java.test.journal.enabled', true, ConfigurationTarget.Global);
+        const params: string[] = await getRunnerCommandParams();
+        const index: number = params.indexOf('--journal');
+        assert.ok(index >= 0, 'The journal should be passed to the runner');
+        assert.ok(path.basename(params[index + 1]).startsWith('java-test-journal-'));
+    });
+
+    teardown(async function() {
+        await fse.remove(journalFile);
+        await workspace.getConfiguration().update('java.test.journal.enabled', undefined, ConfigurationTarget.Global);
+    });
+});
+
+/**
+ * @param committedRecords the record count in the header, all the records of the messages by default
+ */
+async function writeJournal(file: string, messages: string[], closed: boolean, committedRecords?: number): Promise<void> {
+    const records: Buffer[] = messages.map((message: string) => {
+        const bytes: Buffer = Buffer.from(message, 'utf8');
+        const record: Buffer = Buffer.alloc(Math.ceil((4 + bytes.length) / RECORD_SIZE) * RECORD_SIZE);
+        record.writeInt32BE(bytes.length, 0);
+        bytes.copy(record, 4);
+        return record;
+    });
+    const header: Buffer = Buffer.alloc(HEADER_SIZE);
+    header.writeInt32BE(MAGIC, 0);
+    header.writeInt32BE(VERSION, 4);
+    header.writeInt32BE(RECORD_SIZE, 8);
+    const recordCount: number = records.reduce((count: number, record: Buffer) => count + record.length / RECORD_SIZE, 0);
+    header.writeInt32BE(committedRecords === undefined ? recordCount : committedRecords, 12);
+    header.writeInt32BE(closed ? FLAG_CLOSED : 0, 16);
+    await fse.writeFile(file, Buffer.concat([header, ...records]));
+}
+
+async function getRunnerCommandParams(): Promise<string[]> {
+    const runner: TestNGRunner = new TestNGRunner(extensions.getExtension('vscjava.vscode-java-test')!.extensionPath);
+    const context: IRunnerContext = {
+        scope: TestLevel.Method,
+        testUri: Uris.JUNIT4_TEST.toString(),
+        fullName: 'junit4.JournalTest#shouldBeJournaled',
+        projectName: 'junit4',
+        isDebug: false,
+        kind: TestKind.TestNG,
+        tests: [{
+            id: 'junit4@junit4.JournalTest#shouldBeJournaled',
+            displayName: 'shouldBeJournaled',
+            fullName: 'junit4.JournalTest#shouldBeJournaled',
+            children: undefined,
+            kind: TestKind.TestNG,
+            project: 'junit4',
+            level: TestLevel.Method,
+            location: {
+                uri: Uris.JUNIT4_TEST.toString(),
+                range: new Range(0, 0, 0, 0),
+            },
+        }],
+    };
+    try {
+        await runner.setup(context);
+        return runner.getRunnerCommandParams();
+    } finally {
+        await runner.tearDown();
+    }
+}